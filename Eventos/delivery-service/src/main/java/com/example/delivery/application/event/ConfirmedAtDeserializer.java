@@ -0,0 +1,69 @@
+package com.example.delivery.application.event;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * {@code yyyy-MM-dd'T'HH:mm:ss[.SSSSSSSSS]} (de 1 a 9 decimales) leído directo del buffer de chars
+ * del parser, sin String ni DateTimeFormatter por record (con el patrón de {@code @JsonFormat} era
+ * la mayor parte de lo asignado en el decode). Cualquier otro formato cae a
+ * {@link LocalDateTime#parse}.
+ */
+public class ConfirmedAtDeserializer extends JsonDeserializer<LocalDateTime> {
+
+  private static final int LENGTH = 19;
+  private static final int MAX_LENGTH = LENGTH + 1 + 9;
+  private static final int[] NANO_SCALE = {0, 100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1};
+
+  @Override
+  public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+    if (parser.currentToken() != JsonToken.VALUE_STRING) {
+      return (LocalDateTime) context.handleUnexpectedToken(LocalDateTime.class, parser);
+    }
+    char[] chars = parser.getTextCharacters();
+    int offset = parser.getTextOffset();
+    int length = parser.getTextLength();
+    if ((length == LENGTH || (length > LENGTH + 1 && length <= MAX_LENGTH && chars[offset + LENGTH] == '.'))
+        && chars[offset + 4] == '-' && chars[offset + 7] == '-'
+        && chars[offset + 10] == 'T' && chars[offset + 13] == ':' && chars[offset + 16] == ':') {
+      int year = digits(chars, offset, 4);
+      int month = digits(chars, offset + 5, 2);
+      int day = digits(chars, offset + 8, 2);
+      int hour = digits(chars, offset + 11, 2);
+      int minute = digits(chars, offset + 14, 2);
+      int second = digits(chars, offset + 17, 2);
+      int fraction = length == LENGTH ? 0 : digits(chars, offset + LENGTH + 1, length - LENGTH - 1);
+      if (year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0 && second >= 0 && fraction >= 0) {
+        int nanos = length == LENGTH ? 0 : fraction * NANO_SCALE[length - LENGTH - 1];
+        try {
+          return LocalDateTime.of(year, month, day, hour, minute, second, nanos);
+        } catch (RuntimeException e) {
+          return (LocalDateTime) context.handleWeirdStringValue(LocalDateTime.class, parser.getText(), e.getMessage());
+        }
+      }
+    }
+    try {
+      return LocalDateTime.parse(parser.getText());
+    } catch (RuntimeException e) {
+      return (LocalDateTime) context.handleWeirdStringValue(LocalDateTime.class, parser.getText(), e.getMessage());
+    }
+  }
+
+  /** @return el número, o -1 si algún char no es un dígito */
+  private static int digits(char[] chars, int from, int count) {
+    int value = 0;
+    for (int i = from; i < from + count; i++) {
+      int digit = chars[i] - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+}
@@ -1,13 +1,16 @@
 package com.example.delivery.application.event;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import java.time.LocalDateTime;
 
 public class OrderConfirmedIntegrationEvent {
   private String orderNumber;
+  private String customerId; // ausente en eventos publicados antes de que orders lo incluyera
   private String eventType;
 
   @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+  @JsonDeserialize(using = ConfirmedAtDeserializer.class)
   private LocalDateTime confirmedAt;
 
   public OrderConfirmedIntegrationEvent() {}
@@ -15,6 +18,9 @@ public class OrderConfirmedIntegrationEvent {
   public String getOrderNumber() { return orderNumber; }
   public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
 
+  public String getCustomerId() { return customerId; }
+  public void setCustomerId(String customerId) { this.customerId = customerId; }
+
   public String getEventType() { return eventType; }
   public void setEventType(String eventType) { this.eventType = eventType; }
 
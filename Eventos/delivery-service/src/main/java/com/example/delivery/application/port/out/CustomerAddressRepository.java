@@ -0,0 +1,14 @@
+package com.example.delivery.application.port.out;
+
+import com.example.delivery.domain.model.Address;
+
+import java.util.Collection;
+import java.util.Map;
+
+/** Copia local de las direcciones de clientes: orders solo publica el customerId. */
+public interface CustomerAddressRepository {
+
+  Map<String, Address> findByCustomerIds(Collection<String> customerIds);
+
+  void save(String customerId, Address address);
+}
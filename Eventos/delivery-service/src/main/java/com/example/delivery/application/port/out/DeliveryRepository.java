@@ -0,0 +1,30 @@
+package com.example.delivery.application.port.out;
+
+import com.example.delivery.domain.model.Delivery;
+import com.example.delivery.domain.model.Route;
+import com.example.delivery.domain.model.RoutePlan;
+
+import java.util.List;
+import java.util.Map;
+
+public interface DeliveryRepository {
+
+  /**
+   * Inserta el lote en una sola escritura; una orden que ya tiene entrega (relectura) se ignora.
+   *
+   * @return las entregas efectivamente insertadas
+   */
+  List<Delivery> saveNew(List<Delivery> deliveries);
+
+  /** Guarda la ruta y se la asigna a sus entregas. */
+  void assignRoute(Route route);
+
+  /** Entregas todavía sin ruta, para rearmar los lotes en memoria al arrancar. */
+  List<Delivery> findUnrouted();
+
+  /** Hasta {@code limit} rutas sin secuenciar, las de ventana más temprana primero, con sus entregas. */
+  Map<String, List<Delivery>> findUnsequencedRoutes(int limit);
+
+  /** Orden de parada de cada entrega y distancia de cada ruta, en una sola escritura. */
+  void savePlans(List<RoutePlan> plans);
+}
@@ -0,0 +1,69 @@
+package com.example.delivery.application.service;
+
+import com.example.delivery.application.event.OrderConfirmedIntegrationEvent;
+import com.example.delivery.application.port.out.CustomerAddressRepository;
+import com.example.delivery.application.port.out.DeliveryRepository;
+import com.example.delivery.domain.model.Address;
+import com.example.delivery.domain.model.Delivery;
+import com.example.delivery.domain.model.DeliveryStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Alta de entregas a partir de órdenes confirmadas; recibe lotes completos del consumer.
+ * El lote se guarda en una sola escritura y las entregas nuevas pasan al {@link RouteBatcher}.
+ */
+@Service
+public class DeliveryService {
+
+  private static final Logger log = LoggerFactory.getLogger(DeliveryService.class);
+
+  private final DeliveryRepository deliveryRepository;
+  private final CustomerAddressRepository customerAddresses;
+  private final RouteBatcher routeBatcher;
+
+  public DeliveryService(DeliveryRepository deliveryRepository, CustomerAddressRepository customerAddresses,
+                         RouteBatcher routeBatcher) {
+    this.deliveryRepository = deliveryRepository;
+    this.customerAddresses = customerAddresses;
+    this.routeBatcher = routeBatcher;
+  }
+
+  public void createDeliveries(List<OrderConfirmedIntegrationEvent> confirmedOrders) {
+    if (log.isDebugEnabled()) {
+      confirmedOrders.forEach(evt -> log.debug("Delivery recibido: orderNumber={} at={}",
+          evt.getOrderNumber(), evt.getConfirmedAt()));
+    }
+    Set<String> customerIds = new HashSet<>();
+    confirmedOrders.stream().map(OrderConfirmedIntegrationEvent::getCustomerId)
+        .filter(Objects::nonNull).forEach(customerIds::add);
+    Map<String, Address> addresses = customerAddresses.findByCustomerIds(customerIds);
+
+    List<Delivery> deliveries = new ArrayList<>(confirmedOrders.size());
+    for (OrderConfirmedIntegrationEvent evt : confirmedOrders) {
+      LocalDateTime confirmedAt = evt.getConfirmedAt() != null ? evt.getConfirmedAt() : LocalDateTime.now();
+      LocalDateTime windowStart = routeBatcher.windowStart(confirmedAt);
+      Address destination = evt.getCustomerId() != null ? addresses.get(evt.getCustomerId()) : null;
+      if (destination == null) {
+        log.warn("No address for customer {} (order {}); delivery will be routed as unknown",
+            evt.getCustomerId(), evt.getOrderNumber());
+      }
+      deliveries.add(new Delivery(UUID.randomUUID().toString(), evt.getOrderNumber(), evt.getCustomerId(),
+          destination, DeliveryStatus.PENDING, windowStart, routeBatcher.windowEnd(windowStart), null));
+    }
+
+    List<Delivery> created = deliveryRepository.saveNew(deliveries);
+    routeBatcher.add(created);
+    log.info("📦 {} deliveries created ({} already existed)", created.size(), deliveries.size() - created.size());
+  }
+}
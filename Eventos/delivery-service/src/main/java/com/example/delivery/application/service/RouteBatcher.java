@@ -0,0 +1,175 @@
+package com.example.delivery.application.service;
+
+import com.example.delivery.application.port.out.DeliveryRepository;
+import com.example.delivery.domain.model.Delivery;
+import com.example.delivery.domain.model.Route;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Agrupa en memoria las entregas sin ruta por (código postal, ventana horaria) y cierra el grupo
+ * como una ruta cuando llega a {@code delivery.routing.max-stops} entregas o cuando lleva
+ * {@code delivery.routing.max-age} abierto. Cada cierre es una sola escritura.
+ *
+ * Los grupos no se persisten: las entregas ya están guardadas sin ruta y se vuelven a agrupar
+ * al arrancar, en una fase anterior a la de los listener containers para que nada llegue por
+ * Kafka antes de la recarga. Un grupo no repite números de orden (una relectura del mismo evento
+ * no suma una parada).
+ */
+@Component
+public class RouteBatcher implements SmartLifecycle {
+
+  /** Antes que los listener containers de Kafka (Integer.MAX_VALUE - 100). */
+  static final int PHASE = Integer.MAX_VALUE - 200;
+
+  static final String UNKNOWN_POSTAL_CODE = "unknown";
+
+  private static final Logger log = LoggerFactory.getLogger(RouteBatcher.class);
+
+  private final DeliveryRepository deliveryRepository;
+  private final int maxStops;
+  private final Duration maxAge;
+  private final Duration window;
+  private final Map<BinKey, Bin> bins = new HashMap<>(); // guarded by this
+  private volatile boolean running;
+
+  public RouteBatcher(DeliveryRepository deliveryRepository,
+                      @Value("${delivery.routing.max-stops:25}") int maxStops,
+                      @Value("${delivery.routing.max-age:5m}") Duration maxAge,
+                      @Value("${delivery.routing.window:2h}") Duration window) {
+    this.deliveryRepository = deliveryRepository;
+    this.maxStops = maxStops;
+    this.maxAge = maxAge;
+    this.window = window;
+  }
+
+  /** Inicio de la ventana a la que pertenece una confirmación. */
+  public LocalDateTime windowStart(LocalDateTime confirmedAt) {
+    long seconds = confirmedAt.toEpochSecond(ZoneOffset.UTC);
+    return LocalDateTime.ofEpochSecond(seconds - Math.floorMod(seconds, window.toSeconds()), 0, ZoneOffset.UTC);
+  }
+
+  public LocalDateTime windowEnd(LocalDateTime windowStart) {
+    return windowStart.plus(window);
+  }
+
+  public void add(List<Delivery> deliveries) {
+    List<Route> full = new ArrayList<>();
+    synchronized (this) {
+      Instant now = Instant.now();
+      for (Delivery delivery : deliveries) {
+        BinKey key = new BinKey(postalCodeOf(delivery), delivery.windowStart());
+        Bin bin = bins.computeIfAbsent(key, k -> new Bin(now));
+        bin.orderNumbers.add(delivery.orderNumber());
+        if (bin.orderNumbers.size() >= maxStops) {
+          bins.remove(key);
+          full.add(bin.toRoute(key));
+        }
+      }
+    }
+    full.forEach(this::flush);
+  }
+
+  @Scheduled(fixedDelayString = "${delivery.routing.sweep-ms:10000}")
+  public void flushExpired() {
+    flushOpenedBefore(Instant.now().minus(maxAge));
+  }
+
+  @PreDestroy
+  public void flushAll() {
+    flushOpenedBefore(Instant.MAX);
+  }
+
+  @Override
+  public void start() {
+    reloadUnrouted();
+    running = true;
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Override
+  public int getPhase() {
+    return PHASE;
+  }
+
+  void reloadUnrouted() {
+    List<Delivery> unrouted = deliveryRepository.findUnrouted();
+    if (!unrouted.isEmpty()) {
+      log.info("Re-binning {} deliveries without route", unrouted.size());
+      add(unrouted);
+    }
+  }
+
+  private void flushOpenedBefore(Instant cutoff) {
+    List<Route> expired = new ArrayList<>();
+    synchronized (this) {
+      for (Iterator<Map.Entry<BinKey, Bin>> it = bins.entrySet().iterator(); it.hasNext(); ) {
+        Map.Entry<BinKey, Bin> entry = it.next();
+        if (entry.getValue().openedAt.isBefore(cutoff)) {
+          expired.add(entry.getValue().toRoute(entry.getKey()));
+          it.remove();
+        }
+      }
+    }
+    expired.forEach(this::flush);
+  }
+
+  // Si falla, las entregas siguen sin ruta en la base: se reagrupan en el próximo arranque.
+  private void flush(Route route) {
+    try {
+      deliveryRepository.assignRoute(route);
+      log.info("Route {} closed: postalCode={} window={} stops={}", route.routeId(), route.postalCode(),
+          route.windowStart(), route.orderNumbers().size());
+    } catch (Exception e) {
+      log.error("Could not close route for postalCode={} window={} ({} stops)", route.postalCode(),
+          route.windowStart(), route.orderNumbers().size(), e);
+    }
+  }
+
+  private static String postalCodeOf(Delivery delivery) {
+    String postalCode = delivery.postalCode();
+    return postalCode != null ? postalCode : UNKNOWN_POSTAL_CODE;
+  }
+
+  private record BinKey(String postalCode, LocalDateTime windowStart) {}
+
+  private static final class Bin {
+    final Instant openedAt;
+    final Set<String> orderNumbers = new LinkedHashSet<>();
+
+    Bin(Instant openedAt) {
+      this.openedAt = openedAt;
+    }
+
+    Route toRoute(BinKey key) {
+      return new Route(UUID.randomUUID().toString(), key.postalCode(), key.windowStart(), List.copyOf(orderNumbers));
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package com.example.delivery.application.service;
+
+import com.example.delivery.domain.model.Delivery;
+import com.example.delivery.domain.model.GeoPoint;
+import com.example.delivery.domain.model.RoutePlan;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Ordena las paradas de cada ruta: vecino más cercano desde el depósito y después 2-opt hasta que
+ * no mejora o se agota {@code delivery.sequencing.time-budget} para esa ruta. Las rutas son
+ * independientes y se resuelven en paralelo en un ForkJoinPool propio, para no competir con el
+ * pool común.
+ *
+ * Las paradas sin coordenadas van al final, en el orden en que llegaron.
+ */
+@Component
+public class RouteSequencer {
+
+  private final GeoPoint depot;
+  private final long timeBudgetNanos;
+  private final ForkJoinPool pool;
+
+  public RouteSequencer(@Value("${delivery.sequencing.depot.latitude}") double depotLatitude,
+                        @Value("${delivery.sequencing.depot.longitude}") double depotLongitude,
+                        @Value("${delivery.sequencing.time-budget:200ms}") Duration timeBudget,
+                        @Value("${delivery.sequencing.parallelism:0}") int parallelism) {
+    this.depot = new GeoPoint(depotLatitude, depotLongitude);
+    this.timeBudgetNanos = timeBudget.toNanos();
+    // 0 = un worker por core
+    this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+  }
+
+  public List<RoutePlan> sequence(Map<String, List<Delivery>> routes) {
+    return sequence(routes, pool);
+  }
+
+  /** Con un pool explícito: el benchmark lo usa para medir contra distintas cantidades de cores. */
+  public List<RoutePlan> sequence(Map<String, List<Delivery>> routes, ForkJoinPool pool) {
+    return pool.submit(() -> routes.entrySet().parallelStream()
+            .map(route -> solve(route.getKey(), route.getValue()))
+            .toList())
+        .join();
+  }
+
+  RoutePlan solve(String routeId, List<Delivery> stops) {
+    long deadline = System.nanoTime() + timeBudgetNanos;
+    List<Delivery> located = new ArrayList<>(stops.size());
+    List<Delivery> unlocated = new ArrayList<>();
+    for (Delivery stop : stops) {
+      (stop.destination() != null && stop.destination().location() != null ? located : unlocated).add(stop);
+    }
+
+    // nodo 0 = depósito, nodo i = located.get(i - 1)
+    int n = located.size() + 1;
+    double[][] distance = new double[n][n];
+    for (int i = 0; i < n; i++) {
+      GeoPoint from = i == 0 ? depot : located.get(i - 1).destination().location();
+      for (int j = i + 1; j < n; j++) {
+        GeoPoint to = located.get(j - 1).destination().location();
+        distance[i][j] = distance[j][i] = from.distanceKm(to);
+      }
+    }
+
+    int[] tour = nearestNeighbour(distance);
+    boolean converged = twoOpt(tour, distance, deadline);
+
+    List<String> orderNumbers = new ArrayList<>(stops.size());
+    for (int i = 1; i < n; i++) {
+      orderNumbers.add(located.get(tour[i] - 1).orderNumber());
+    }
+    unlocated.forEach(stop -> orderNumbers.add(stop.orderNumber()));
+    return new RoutePlan(routeId, orderNumbers, length(tour, distance), converged);
+  }
+
+  private static int[] nearestNeighbour(double[][] distance) {
+    int n = distance.length;
+    int[] tour = new int[n];
+    boolean[] visited = new boolean[n];
+    visited[0] = true;
+    for (int i = 1; i < n; i++) {
+      int last = tour[i - 1];
+      int next = -1;
+      for (int candidate = 1; candidate < n; candidate++) {
+        if (!visited[candidate] && (next < 0 || distance[last][candidate] < distance[last][next])) {
+          next = candidate;
+        }
+      }
+      tour[i] = next;
+      visited[next] = true;
+    }
+    return tour;
+  }
+
+  /**
+   * 2-opt sobre el circuito cerrado (depósito fijo en la posición 0): si cambiar las aristas
+   * (a,b) y (c,d) por (a,c) y (b,d) acorta el circuito, invierte el tramo b..c.
+   *
+   * @return true si terminó sin mejoras pendientes, false si se cortó por el deadline
+   */
+  private static boolean twoOpt(int[] tour, double[][] distance, long deadline) {
+    int n = tour.length;
+    boolean improved = true;
+    while (improved) {
+      improved = false;
+      for (int i = 0; i < n - 2; i++) {
+        if (System.nanoTime() > deadline) {
+          return false;
+        }
+        int a = tour[i];
+        int b = tour[i + 1];
+        for (int j = i + 2; j < n; j++) {
+          int c = tour[j];
+          int d = tour[(j + 1) % n];
+          if (d == a) {
+            continue; // aristas adyacentes
+          }
+          if (distance[a][c] + distance[b][d] < distance[a][b] + distance[c][d] - 1e-9) {
+            reverse(tour, i + 1, j);
+            b = tour[i + 1];
+            improved = true;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  private static void reverse(int[] tour, int from, int to) {
+    while (from < to) {
+      int tmp = tour[from];
+      tour[from++] = tour[to];
+      tour[to--] = tmp;
+    }
+  }
+
+  private static double length(int[] tour, double[][] distance) {
+    double total = 0;
+    for (int i = 0; i < tour.length; i++) {
+      total += distance[tour[i]][tour[(i + 1) % tour.length]];
+    }
+    return total;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    pool.shutdown();
+  }
+}
@@ -0,0 +1,45 @@
+package com.example.delivery.application.service;
+
+import com.example.delivery.application.port.out.DeliveryRepository;
+import com.example.delivery.domain.model.Delivery;
+import com.example.delivery.domain.model.RoutePlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/** Secuencia de una vez todas las rutas cerradas que todavía no tienen orden de paradas. */
+@Service
+public class RouteSequencingService {
+
+  private static final Logger log = LoggerFactory.getLogger(RouteSequencingService.class);
+
+  private final DeliveryRepository deliveryRepository;
+  private final RouteSequencer sequencer;
+  private final int maxRoutes;
+
+  public RouteSequencingService(DeliveryRepository deliveryRepository, RouteSequencer sequencer,
+                                @Value("${delivery.sequencing.max-routes:1000}") int maxRoutes) {
+    this.deliveryRepository = deliveryRepository;
+    this.sequencer = sequencer;
+    this.maxRoutes = maxRoutes;
+  }
+
+  public Summary sequencePendingRoutes() {
+    long start = System.nanoTime();
+    Map<String, List<Delivery>> routes = deliveryRepository.findUnsequencedRoutes(maxRoutes);
+    List<RoutePlan> plans = sequencer.sequence(routes);
+    deliveryRepository.savePlans(plans);
+
+    int stops = plans.stream().mapToInt(plan -> plan.orderNumbers().size()).sum();
+    long truncated = plans.stream().filter(plan -> !plan.converged()).count();
+    long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+    log.info("Sequenced {} routes ({} stops) in {} ms; {} hit the time budget", plans.size(), stops, elapsedMs, truncated);
+    return new Summary(plans.size(), stops, truncated, elapsedMs);
+  }
+
+  public record Summary(int routes, int stops, long truncatedByTimeBudget, long elapsedMs) {}
+}
@@ -0,0 +1,4 @@
+package com.example.delivery.domain.model;
+
+/** {@code location} es null si la dirección no está geocodificada; esa parada no se secuencia. */
+public record Address(String street, String city, String postalCode, GeoPoint location) {}
@@ -0,0 +1,22 @@
+package com.example.delivery.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entrega de una orden confirmada. Nace sin ruta ({@code routeId == null}); la ruta se asigna
+ * cuando el lote de su código postal y ventana se cierra. {@code destination} es null si el
+ * cliente todavía no tiene dirección cargada.
+ */
+public record Delivery(String deliveryId,
+                       String orderNumber,
+                       String customerId,
+                       Address destination,
+                       DeliveryStatus status,
+                       LocalDateTime windowStart,
+                       LocalDateTime scheduledAt,
+                       String routeId) {
+
+  public String postalCode() {
+    return destination != null ? destination.postalCode() : null;
+  }
+}
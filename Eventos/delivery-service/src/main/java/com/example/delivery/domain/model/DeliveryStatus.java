@@ -0,0 +1,7 @@
+package com.example.delivery.domain.model;
+
+public enum DeliveryStatus {
+  PENDING,
+  IN_PROGRESS,
+  DELIVERED
+}
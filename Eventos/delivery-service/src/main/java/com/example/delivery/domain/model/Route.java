@@ -0,0 +1,7 @@
+package com.example.delivery.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** Ruta de reparto: las entregas de un código postal en una misma ventana horaria. */
+public record Route(String routeId, String postalCode, LocalDateTime windowStart, List<String> orderNumbers) {}
@@ -0,0 +1,9 @@
+package com.example.delivery.domain.model;
+
+import java.util.List;
+
+/**
+ * Orden de paradas de una ruta, saliendo del depósito y volviendo a él. {@code converged} es
+ * false si el 2-opt se cortó por el presupuesto de tiempo: el orden es válido pero mejorable.
+ */
+public record RoutePlan(String routeId, List<String> orderNumbers, double distanceKm, boolean converged) {}
@@ -0,0 +1,113 @@
+package com.example.delivery.infrastructure.benchmark;
+
+import com.example.delivery.application.event.OrderConfirmedIntegrationEvent;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Microbenchmark del decode de un record (perfil {@code benchmark}, {@code benchmark.suite=decode}):
+ * ns/op y bytes asignados por record, en un solo hilo, para el camino anterior (StringDeserializer +
+ * ObjectMapper.readValue, fecha con el patrón de {@code @JsonFormat}), uno intermedio (String +
+ * ObjectReader precompilado) y el actual (byte[] + ObjectReader precompilado). Los bytes asignados salen del contador por hilo de la JVM
+ * (com.sun.management.ThreadMXBean), así que no hace falta un profiler.
+ */
+@Component
+@Profile("benchmark")
+@ConditionalOnProperty(name = "benchmark.suite", havingValue = "decode")
+public class DecodeBenchmark implements CommandLineRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(DecodeBenchmark.class);
+  private static final String TOPIC = "hexagonal-orders-dev-order-confirmed";
+
+  private final ObjectMapper objectMapper;
+  private final ConfigurableApplicationContext context;
+  private final int warmupOps;
+  private final int measuredOps;
+  private final boolean exitWhenDone;
+  private final com.sun.management.ThreadMXBean threads =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+  private long sink;
+
+  public DecodeBenchmark(ObjectMapper objectMapper, ConfigurableApplicationContext context,
+                         @Value("${benchmark.decode.warmup-ops:500000}") int warmupOps,
+                         @Value("${benchmark.decode.measured-ops:2000000}") int measuredOps,
+                         @Value("${benchmark.exit-when-done:true}") boolean exitWhenDone) {
+    this.objectMapper = objectMapper;
+    this.context = context;
+    this.warmupOps = warmupOps;
+    this.measuredOps = measuredOps;
+    this.exitWhenDone = exitWhenDone;
+  }
+
+  @Override
+  public void run(String... args) throws Exception {
+    byte[] payload = ("{\"orderNumber\":\"ORD-20240101-000123\",\"customerId\":\"CUST-0042\","
+        + "\"eventType\":\"OrderConfirmed\",\"confirmedAt\":\"2024-01-01T10:00:00\"}").getBytes(StandardCharsets.UTF_8);
+    StringDeserializer strings = new StringDeserializer();
+    ObjectReader reader = objectMapper.readerFor(OrderConfirmedIntegrationEvent.class);
+    log.info("Decode benchmark: {} bytes per record, {} warm-up + {} measured ops per variant",
+        payload.length, warmupOps, measuredOps);
+
+    measure("before: String + ObjectMapper.readValue, @JsonFormat pattern", () ->
+        objectMapper.readValue(strings.deserialize(TOPIC, payload), PatternDateEvent.class));
+    measure("String + ObjectReader", () ->
+        reader.readValue(strings.deserialize(TOPIC, payload)));
+    measure("after: byte[] + ObjectReader", () ->
+        reader.readValue(payload));
+
+    log.debug("sink {}", sink);
+    if (exitWhenDone) {
+      System.exit(SpringApplication.exit(context, () -> 0));
+    }
+  }
+
+  private void measure(String variant, Decode decode) throws Exception {
+    for (int i = 0; i < warmupOps; i++) {
+      consume(decode.decode());
+    }
+    long threadId = Thread.currentThread().getId();
+    long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+    long start = System.nanoTime();
+    for (int i = 0; i < measuredOps; i++) {
+      consume(decode.decode());
+    }
+    long elapsed = System.nanoTime() - start;
+    long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+    log.info("{}: {} ns/op, {} B/op", variant,
+        String.format("%.1f", (double) elapsed / measuredOps), String.format("%.0f", (double) allocated / measuredOps));
+  }
+
+  // evita que el JIT descarte el decode como código muerto
+  private void consume(Object event) {
+    sink += event.hashCode() & 1;
+  }
+
+  @FunctionalInterface
+  private interface Decode {
+    Object decode() throws Exception;
+  }
+
+  /** El evento como se leía antes: la fecha con el patrón de {@code @JsonFormat}. */
+  static class PatternDateEvent {
+    public String orderNumber;
+    public String customerId;
+    public String eventType;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    public LocalDateTime confirmedAt;
+  }
+}
@@ -0,0 +1,140 @@
+package com.example.delivery.infrastructure.benchmark;
+
+import com.example.delivery.application.service.RouteSequencer;
+import com.example.delivery.domain.model.Address;
+import com.example.delivery.domain.model.Delivery;
+import com.example.delivery.domain.model.DeliveryStatus;
+import com.example.delivery.domain.model.GeoPoint;
+import com.example.delivery.domain.model.RoutePlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmark del secuenciador (perfil {@code benchmark}, sin Kafka ni base): genera rutas
+ * sintéticas alrededor del depósito y mide rutas/segundo resolviéndolas con 1, 2, 4, ... workers
+ * hasta la cantidad de cores, para ver cuánto escala el paralelismo por ruta.
+ */
+@Component
+@Profile("benchmark")
+@ConditionalOnProperty(name = "benchmark.suite", havingValue = "sequencing", matchIfMissing = true)
+public class SequencingBenchmark implements CommandLineRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(SequencingBenchmark.class);
+
+  private final RouteSequencer sequencer;
+  private final ConfigurableApplicationContext context;
+  private final int routes;
+  private final int stopsPerRoute;
+  private final double radiusKm;
+  private final int rounds;
+  private final long seed;
+  private final boolean exitWhenDone;
+  private final GeoPoint depot;
+
+  public SequencingBenchmark(RouteSequencer sequencer, ConfigurableApplicationContext context,
+                             @Value("${benchmark.routes:500}") int routes,
+                             @Value("${benchmark.stops-per-route:40}") int stopsPerRoute,
+                             @Value("${benchmark.radius-km:15}") double radiusKm,
+                             @Value("${benchmark.rounds:3}") int rounds,
+                             @Value("${benchmark.seed:42}") long seed,
+                             @Value("${benchmark.exit-when-done:true}") boolean exitWhenDone,
+                             @Value("${delivery.sequencing.depot.latitude}") double depotLatitude,
+                             @Value("${delivery.sequencing.depot.longitude}") double depotLongitude) {
+    this.sequencer = sequencer;
+    this.context = context;
+    this.routes = routes;
+    this.stopsPerRoute = stopsPerRoute;
+    this.radiusKm = radiusKm;
+    this.rounds = rounds;
+    this.seed = seed;
+    this.exitWhenDone = exitWhenDone;
+    this.depot = new GeoPoint(depotLatitude, depotLongitude);
+  }
+
+  @Override
+  public void run(String... args) {
+    Map<String, List<Delivery>> input = syntheticRoutes();
+    int cores = Runtime.getRuntime().availableProcessors();
+    log.info("Sequencing benchmark: {} routes x {} stops, {} rounds per setting, {} cores",
+        routes, stopsPerRoute, rounds, cores);
+
+    // warm-up: JIT del solver antes de medir
+    sequencer.sequence(input, ForkJoinPool.commonPool());
+
+    double baseline = 0;
+    for (int workers : workerCounts(cores)) {
+      ForkJoinPool pool = new ForkJoinPool(workers);
+      try {
+        long best = Long.MAX_VALUE;
+        List<RoutePlan> plans = List.of();
+        for (int round = 0; round < rounds; round++) {
+          long start = System.nanoTime();
+          plans = sequencer.sequence(input, pool);
+          best = Math.min(best, System.nanoTime() - start);
+        }
+        double routesPerSecond = routes / (best / 1e9);
+        if (baseline == 0) {
+          baseline = routesPerSecond;
+        }
+        long truncated = plans.stream().filter(plan -> !plan.converged()).count();
+        double meanKm = plans.stream().mapToDouble(RoutePlan::distanceKm).average().orElse(0);
+        log.info("workers={} -> {} routes/s (x{} vs 1 worker), mean route {} km, {} routes hit the time budget",
+            workers, String.format("%.1f", routesPerSecond), String.format("%.2f", routesPerSecond / baseline),
+            String.format("%.1f", meanKm), truncated);
+      } finally {
+        pool.shutdown();
+      }
+    }
+
+    if (exitWhenDone) {
+      System.exit(SpringApplication.exit(context, () -> 0));
+    }
+  }
+
+  private Map<String, List<Delivery>> syntheticRoutes() {
+    Random random = new Random(seed);
+    double kmPerDegreeLat = 111.32;
+    double kmPerDegreeLon = kmPerDegreeLat * Math.cos(Math.toRadians(depot.latitude()));
+    Map<String, List<Delivery>> input = new LinkedHashMap<>();
+    LocalDateTime window = LocalDateTime.now();
+    for (int r = 0; r < routes; r++) {
+      String routeId = "bench-route-" + r;
+      List<Delivery> stops = new ArrayList<>(stopsPerRoute);
+      for (int s = 0; s < stopsPerRoute; s++) {
+        GeoPoint location = new GeoPoint(
+            depot.latitude() + (random.nextDouble() * 2 - 1) * radiusKm / kmPerDegreeLat,
+            depot.longitude() + (random.nextDouble() * 2 - 1) * radiusKm / kmPerDegreeLon);
+        String orderNumber = routeId + "-" + s;
+        stops.add(new Delivery(orderNumber, orderNumber, null, new Address("-", "-", "-", location),
+            DeliveryStatus.PENDING, window, null, routeId));
+      }
+      input.put(routeId, stops);
+    }
+    return input;
+  }
+
+  private static TreeSet<Integer> workerCounts(int cores) {
+    TreeSet<Integer> counts = new TreeSet<>();
+    for (int workers = 1; workers < cores; workers *= 2) {
+      counts.add(workers);
+    }
+    counts.add(cores);
+    return counts;
+  }
+}
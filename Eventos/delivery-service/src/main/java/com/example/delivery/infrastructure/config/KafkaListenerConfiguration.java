@@ -0,0 +1,24 @@
+package com.example.delivery.infrastructure.config;
+
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+
+/**
+ * La factory de Boot (spring.kafka.listener.*) más {@code ackDiscarded}: un lote que el
+ * integrationEventFilter deja vacío no llega al listener y, sin esto, nunca se confirmaría.
+ */
+@Configuration
+public class KafkaListenerConfiguration {
+
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<Object, Object> kafkaListenerContainerFactory(
+      ConcurrentKafkaListenerContainerFactoryConfigurer configurer, ConsumerFactory<Object, Object> consumerFactory) {
+    ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+    configurer.configure(factory, consumerFactory);
+    factory.setAckDiscarded(true);
+    return factory;
+  }
+}
@@ -0,0 +1,28 @@
+package com.example.delivery.infrastructure.config;
+
+import com.example.delivery.infrastructure.in.messaging.RetryTopics;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Tópicos propios de delivery: los de reintento y el DLT. El principal lo crea orders. */
+@Configuration
+public class KafkaTopicsConfiguration {
+
+  @Bean
+  public KafkaAdmin.NewTopics deliveryRetryTopics(RetryTopics retryTopics,
+                                                  @Value("${delivery.retry.partitions:1}") int partitions,
+                                                  @Value("${delivery.retry.replication-factor:1}") short replicationFactor) {
+    List<String> names = new ArrayList<>(retryTopics.retryTopicNames());
+    names.add(retryTopics.deadLetterTopic());
+    return new KafkaAdmin.NewTopics(names.stream()
+        .map(name -> TopicBuilder.name(name).partitions(partitions).replicas(replicationFactor).build())
+        .toArray(NewTopic[]::new));
+  }
+}
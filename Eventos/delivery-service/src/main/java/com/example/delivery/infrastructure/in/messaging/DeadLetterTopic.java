@@ -0,0 +1,173 @@
+package com.example.delivery.infrastructure.in.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Profundidad y replay del DLT. Nada consume el DLT en forma continua: el grupo
+ * {@code delivery.dlt.replay-group} avanza solo cuando se pide un replay, así que su lag es la
+ * cantidad de records muertos pendientes ({@code delivery.dlt.depth}, refrescado cada
+ * {@code delivery.dlt.depth-refresh-ms}).
+ */
+@Component
+public class DeadLetterTopic {
+
+  private static final Logger log = LoggerFactory.getLogger(DeadLetterTopic.class);
+  private static final Duration POLL_TIMEOUT = Duration.ofSeconds(2);
+
+  private final RetryTopics retryTopics;
+  private final KafkaTemplate<String, byte[]> kafkaTemplate;
+  private final ConsumerFactory<?, ?> consumerFactory;
+  private final AdminClient admin;
+  private final String replayGroup;
+  private final AtomicLong depth = new AtomicLong();
+  private final Counter replayed;
+
+  public DeadLetterTopic(RetryTopics retryTopics, KafkaTemplate<String, byte[]> kafkaTemplate,
+                         ConsumerFactory<?, ?> consumerFactory, KafkaAdmin kafkaAdmin, MeterRegistry meterRegistry,
+                         @Value("${delivery.dlt.replay-group:delivery-service-dlt-replay}") String replayGroup) {
+    this.retryTopics = retryTopics;
+    this.kafkaTemplate = kafkaTemplate;
+    this.consumerFactory = consumerFactory;
+    this.admin = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+    this.replayGroup = replayGroup;
+    Gauge.builder("delivery.dlt.depth", depth, AtomicLong::get)
+        .description("Dead-lettered records not yet replayed")
+        .register(meterRegistry);
+    this.replayed = Counter.builder("delivery.dlt.replayed")
+        .description("Dead-lettered records re-injected into their original topic")
+        .register(meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${delivery.dlt.depth-refresh-ms:30000}")
+  public void refreshDepth() {
+    try {
+      String topic = retryTopics.deadLetterTopic();
+      List<TopicPartition> partitions = admin.describeTopics(List.of(topic)).allTopicNames().get(10, TimeUnit.SECONDS)
+          .get(topic).partitions().stream()
+          .map(info -> new TopicPartition(topic, info.partition()))
+          .toList();
+      Map<TopicPartition, OffsetSpec> earliest = new HashMap<>();
+      Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+      partitions.forEach(partition -> {
+        earliest.put(partition, OffsetSpec.earliest());
+        latest.put(partition, OffsetSpec.latest());
+      });
+      Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> start = admin.listOffsets(earliest).all().get(10, TimeUnit.SECONDS);
+      Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> end = admin.listOffsets(latest).all().get(10, TimeUnit.SECONDS);
+      Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(replayGroup)
+          .partitionsToOffsetAndMetadata().get(10, TimeUnit.SECONDS);
+      long total = 0;
+      for (TopicPartition partition : partitions) {
+        OffsetAndMetadata position = committed.get(partition);
+        long from = Math.max(start.get(partition).offset(), position != null ? position.offset() : 0);
+        total += Math.max(0, end.get(partition).offset() - from);
+      }
+      depth.set(total);
+    } catch (Exception e) {
+      log.warn("Failed to refresh DLT depth: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Reinyecta hasta {@code max} records del DLT en su tópico original, sin los headers de
+   * reintento (vuelven a tener todos los intentos). Los offsets del grupo de replay se
+   * confirman después de que el broker aceptó los reenvíos.
+   *
+   * @return cuántos records se reinyectaron
+   */
+  public synchronized int replay(int max) {
+    Properties overrides = new Properties();
+    overrides.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+    overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Integer.toString(Math.min(max, 500)));
+    int count = 0;
+    try (Consumer<?, ?> consumer = consumerFactory.createConsumer(replayGroup, null, "-replay", overrides)) {
+      String topic = retryTopics.deadLetterTopic();
+      List<TopicPartition> partitions = consumer.partitionsFor(topic).stream()
+          .map(info -> new TopicPartition(topic, info.partition()))
+          .toList();
+      consumer.assign(partitions);
+      // solo hasta el final actual: lo que vuelva a morir durante el replay queda para el próximo
+      Map<TopicPartition, Long> end = consumer.endOffsets(partitions);
+      Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+      List<CompletableFuture<?>> sends = new ArrayList<>();
+      while (count < max && !reached(consumer, end)) {
+        ConsumerRecords<?, ?> records = consumer.poll(POLL_TIMEOUT);
+        if (records.isEmpty()) {
+          break;
+        }
+        for (ConsumerRecord<?, ?> record : records) {
+          TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+          if (count == max || record.offset() >= end.get(partition)) {
+            continue;
+          }
+          sends.add(kafkaTemplate.send(reinjected(record)));
+          offsets.put(partition, new OffsetAndMetadata(record.offset() + 1));
+          count++;
+        }
+        // lo leído de más en este poll no se confirma: queda para el próximo replay
+        offsets.forEach(consumer::seek);
+      }
+      CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+      consumer.commitSync(offsets);
+    } catch (Exception e) {
+      throw new IllegalStateException("DLT replay failed after " + count + " records", e);
+    }
+    replayed.increment(count);
+    log.info("Replayed {} records from {}", count, retryTopics.deadLetterTopic());
+    refreshDepth();
+    return count;
+  }
+
+  private static boolean reached(Consumer<?, ?> consumer, Map<TopicPartition, Long> end) {
+    return end.entrySet().stream().allMatch(partition -> consumer.position(partition.getKey()) >= partition.getValue());
+  }
+
+  private ProducerRecord<String, byte[]> reinjected(ConsumerRecord<?, ?> record) {
+    String originalTopic = EventHeaders.read(record.headers(), RetryTopics.ORIGINAL_TOPIC);
+    ProducerRecord<String, byte[]> next = new ProducerRecord<>(
+        originalTopic != null ? originalTopic : retryTopics.mainTopic(), (String) record.key(), (byte[]) record.value());
+    for (Header header : record.headers()) {
+      if (!header.key().startsWith("retry-")) {
+        next.headers().add(header);
+      }
+    }
+    return next;
+  }
+
+  @PreDestroy
+  void close() {
+    admin.close(Duration.ofSeconds(5));
+  }
+}
@@ -0,0 +1,26 @@
+package com.example.delivery.infrastructure.in.messaging;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+
+/** Headers de metadata que publica el outbox de orders (valores en texto UTF-8). */
+public final class EventHeaders {
+
+  public static final String EVENT_TYPE = "event-type";
+  public static final String SCHEMA_VERSION = "schema-version";
+  public static final String AGGREGATE_ID = "aggregate-id";
+  public static final String EVENT_ID = "event-id";
+  public static final String OCCURRED_AT = "occurred-at";
+  public static final String TRACE_ID = "trace-id";
+
+  private EventHeaders() {
+  }
+
+  /** @return el valor del header, o null si el record no lo trae */
+  public static String read(Headers headers, String name) {
+    Header header = headers.lastHeader(name);
+    return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,77 @@
+package com.example.delivery.infrastructure.in.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Despacha los records al handler de su event-type. El payload se deserializa solo acá,
+ * una vez elegido el handler, con un ObjectReader precompilado por tipo; cada handler recibe
+ * de una vez todos los eventos de su tipo del lote, en orden.
+ *
+ * El valor llega como {@code byte[]} (ByteArrayDeserializer) y el reader parsea directo esos
+ * bytes UTF-8: no hay un String intermedio por record ni una segunda copia en chars.
+ */
+@Component
+public class IntegrationEventDispatcher {
+
+  private static final Logger log = LoggerFactory.getLogger(IntegrationEventDispatcher.class);
+
+  private final ObjectMapper objectMapper;
+  private final Map<String, Handler<?>> handlers = new ConcurrentHashMap<>();
+
+  public IntegrationEventDispatcher(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  public <T> void register(String eventType, Class<T> payloadType, Consumer<List<T>> batchHandler) {
+    handlers.put(eventType, new Handler<>(objectMapper.readerFor(payloadType), batchHandler));
+  }
+
+  public boolean handles(String eventType) {
+    return eventType != null && handlers.containsKey(eventType);
+  }
+
+  /**
+   * Un payload ilegible no llega al handler: se entrega a {@code onUnreadable} (reintentarlo no
+   * lo arregla). Una excepción de un handler se propaga.
+   */
+  public void dispatch(List<ConsumerRecord<String, byte[]>> records,
+                       BiConsumer<ConsumerRecord<String, byte[]>, Exception> onUnreadable) {
+    Map<Handler<?>, List<Object>> batches = new LinkedHashMap<>();
+    for (ConsumerRecord<String, byte[]> record : records) {
+      String eventType = OrderConfirmedConsumer.eventTypeOf(record);
+      Handler<?> handler = handlers.get(eventType);
+      if (handler == null) {
+        continue; // el filtro ya los descarta; por si el listener se usa sin filtro
+      }
+      try {
+        batches.computeIfAbsent(handler, h -> new ArrayList<>()).add(handler.reader().readValue(record.value()));
+      } catch (Exception e) {
+        log.error("Unreadable {} at {}-{}@{}: {}", eventType, record.topic(), record.partition(),
+            record.offset(), record.value() == null ? null : new String(record.value(), StandardCharsets.UTF_8), e);
+        onUnreadable.accept(record, e);
+      }
+    }
+    batches.forEach(Handler::handle);
+  }
+
+  private record Handler<T>(ObjectReader reader, Consumer<List<T>> consumer) {
+    @SuppressWarnings("unchecked")
+    void handle(List<Object> events) {
+      consumer.accept((List<T>) events);
+    }
+  }
+}
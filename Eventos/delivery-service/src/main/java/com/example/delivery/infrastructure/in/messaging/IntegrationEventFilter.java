@@ -0,0 +1,67 @@
+package com.example.delivery.infrastructure.in.messaging;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.listener.adapter.RecordFilterStrategy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Descarta, mirando solo los headers, los records sin handler y los duplicados ya procesados,
+ * antes de que el listener toque el payload.
+ */
+@Component("integrationEventFilter")
+public class IntegrationEventFilter implements RecordFilterStrategy<String, byte[]> {
+
+  private static final Logger log = LoggerFactory.getLogger(IntegrationEventFilter.class);
+
+  private final IntegrationEventDispatcher dispatcher;
+  private final ProcessedEventIds processedEventIds;
+
+  public IntegrationEventFilter(IntegrationEventDispatcher dispatcher, ProcessedEventIds processedEventIds) {
+    this.dispatcher = dispatcher;
+    this.processedEventIds = processedEventIds;
+  }
+
+  /** @return true si el record se descarta */
+  @Override
+  public boolean filter(ConsumerRecord<String, byte[]> record) {
+    String eventType = OrderConfirmedConsumer.eventTypeOf(record);
+    if (!dispatcher.handles(eventType)) {
+      log.debug("Skipping {} at {}-{}@{}", eventType, record.topic(), record.partition(), record.offset());
+      return true;
+    }
+    String key = ProcessedEventIds.keyOf(record);
+    if (key != null && processedEventIds.contains(key)) {
+      log.debug("Skipping duplicate event {}", key);
+      return true;
+    }
+    return false;
+  }
+
+  /** Para el listener por lotes: una sola consulta de duplicados para todo el lote. */
+  @Override
+  public List<ConsumerRecord<String, byte[]>> filterBatch(List<ConsumerRecord<String, byte[]>> records) {
+    List<ConsumerRecord<String, byte[]>> handled = new ArrayList<>(records.size());
+    List<String> keys = new ArrayList<>(records.size());
+    for (ConsumerRecord<String, byte[]> record : records) {
+      if (dispatcher.handles(OrderConfirmedConsumer.eventTypeOf(record))) {
+        handled.add(record);
+        String key = ProcessedEventIds.keyOf(record);
+        if (key != null) {
+          keys.add(key);
+        }
+      }
+    }
+    Set<String> duplicates = processedEventIds.findProcessed(keys);
+    if (!duplicates.isEmpty()) {
+      log.debug("Skipping {} duplicate events", duplicates.size());
+      handled.removeIf(record -> duplicates.contains(ProcessedEventIds.keyOf(record)));
+    }
+    return handled;
+  }
+}
@@ -0,0 +1,101 @@
+package com.example.delivery.infrastructure.in.messaging;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Procesa un lote en paralelo respetando el orden por clave: los records de una misma clave
+ * (número de orden) corren en secuencia, claves distintas corren a la vez, con a lo sumo
+ * {@code delivery.consumer.parallelism} records en proceso entre todos los listeners.
+ * Usa virtual threads si el runtime los tiene (Java 21+).
+ */
+@Component
+public class KeyOrderedProcessor {
+
+  private static final Logger log = LoggerFactory.getLogger(KeyOrderedProcessor.class);
+
+  private final ExecutorService executor;
+  private final Semaphore permits;
+
+  public KeyOrderedProcessor(@Value("${delivery.consumer.parallelism:16}") int parallelism) {
+    this.executor = newExecutor(parallelism);
+    this.permits = new Semaphore(parallelism);
+  }
+
+  /**
+   * @return el índice del primer record (en el orden del lote) que no se completó, o -1 si se
+   *         completaron todos; después de una falla no se procesa el resto de esa clave
+   */
+  public int process(List<ConsumerRecord<String, byte[]>> records, Consumer<ConsumerRecord<String, byte[]>> handler) {
+    Map<Object, List<Integer>> byKey = new LinkedHashMap<>();
+    for (int i = 0; i < records.size(); i++) {
+      ConsumerRecord<String, byte[]> record = records.get(i);
+      // sin clave: mismo grupo por partición, se conserva el orden del log
+      Object key = record.key() != null ? record.key() : record.partition();
+      byKey.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+    }
+    List<CompletableFuture<Integer>> groups = new ArrayList<>(byKey.size());
+    for (List<Integer> indexes : byKey.values()) {
+      groups.add(CompletableFuture.supplyAsync(() -> processInOrder(records, indexes, handler), executor));
+    }
+    int firstFailed = -1;
+    for (CompletableFuture<Integer> group : groups) {
+      int failed = group.join();
+      if (failed >= 0 && (firstFailed < 0 || failed < firstFailed)) {
+        firstFailed = failed;
+      }
+    }
+    return firstFailed;
+  }
+
+  private int processInOrder(List<ConsumerRecord<String, byte[]>> records, List<Integer> indexes,
+                             Consumer<ConsumerRecord<String, byte[]>> handler) {
+    for (int index : indexes) {
+      ConsumerRecord<String, byte[]> record = records.get(index);
+      try {
+        permits.acquire();
+        try {
+          handler.accept(record);
+        } finally {
+          permits.release();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return index;
+      } catch (Exception e) {
+        log.error("Failed to process {}-{}@{} (key {})", record.topic(), record.partition(), record.offset(),
+            record.key(), e);
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  private static ExecutorService newExecutor(int parallelism) {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("delivery-worker-"));
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdown();
+  }
+}
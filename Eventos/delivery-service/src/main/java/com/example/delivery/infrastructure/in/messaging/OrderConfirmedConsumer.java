@@ -1,31 +1,172 @@
 package com.example.delivery.infrastructure.in.messaging;
 
 import com.example.delivery.application.event.OrderConfirmedIntegrationEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.delivery.application.service.DeliveryService;
+import jakarta.annotation.PostConstruct;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Consume por lotes (hasta max.poll.records por poll) con un hilo por partición asignada.
+ * Los offsets del lote se confirman a mano, una sola vez, después de procesarlo entero.
+ *
+ * Con {@code delivery.consumer.mode=parallel} el lote se reparte por número de orden en
+ * {@link KeyOrderedProcessor}: una entrega lenta ya no frena a las demás órdenes de la partición.
+ *
+ * Un record que falla no frena la partición: sale a los tópicos de reintento ({@link RetryTopics})
+ * y el lote se confirma igual. Solo si no se puede reenviar se deja de confirmar (en modo
+ * parallel, se commitea hasta el primer record sin completar y se relee desde ahí).
+ */
 @Component
 public class OrderConfirmedConsumer {
 
-  private final ObjectMapper objectMapper;
+  static final String EVENT_TYPE = "OrderConfirmedIntegrationEvent";
+
+  private static final Logger log = LoggerFactory.getLogger(OrderConfirmedConsumer.class);
+
+  private final IntegrationEventDispatcher dispatcher;
+  private final ProcessedEventIds processedEventIds;
+  private final DeliveryService deliveryService;
+  private final KeyOrderedProcessor keyOrderedProcessor;
+  private final RetryTopics retryTopics;
+  private final boolean parallel;
+  private final Duration retryBackoff;
+
+  public OrderConfirmedConsumer(IntegrationEventDispatcher dispatcher, ProcessedEventIds processedEventIds,
+                                DeliveryService deliveryService, KeyOrderedProcessor keyOrderedProcessor,
+                                RetryTopics retryTopics,
+                                @Value("${delivery.consumer.mode:batch}") String mode,
+                                @Value("${delivery.consumer.retry-backoff:1s}") Duration retryBackoff) {
+    this.dispatcher = dispatcher;
+    this.processedEventIds = processedEventIds;
+    this.deliveryService = deliveryService;
+    this.keyOrderedProcessor = keyOrderedProcessor;
+    this.retryTopics = retryTopics;
+    this.parallel = "parallel".equalsIgnoreCase(mode);
+    this.retryBackoff = retryBackoff;
+  }
+
+  @PostConstruct
+  void registerHandlers() {
+    dispatcher.register(EVENT_TYPE, OrderConfirmedIntegrationEvent.class, deliveryService::createDeliveries);
+  }
+
+  // integrationEventFilter ya descartó (por headers) lo que no se maneja y los duplicados.
+  @KafkaListener(topics = "${delivery.topic.order-confirmed}", groupId = "delivery-service",
+      filter = "integrationEventFilter")
+  public void onMessages(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack, Consumer<?, ?> consumer) {
+    if (parallel) {
+      int failed = keyOrderedProcessor.process(records, record -> {
+        if (!alreadyProcessed(record)) { // duplicado dentro del mismo lote o relectura tras un rewind
+          handle(List.of(record));
+        }
+      });
+      if (failed < 0) {
+        ack.acknowledge();
+      } else {
+        rewind(records, failed, consumer);
+      }
+      return;
+    }
+    handle(records);
+    ack.acknowledge();
+  }
 
-  public OrderConfirmedConsumer(ObjectMapper objectMapper) {
-    this.objectMapper = objectMapper; // Usa el ObjectMapper de Spring (con JavaTimeModule)
+  /**
+   * Lo que haría {@code nack(failed)} si el lote no viniera filtrado: el container aplica ese índice
+   * al poll completo, no a esta lista, así que se resuelve por partición y offset. Cada partición
+   * se commitea hasta su primer record desde el fallido (o entera si no tiene ninguno) y se
+   * reposiciona ahí; los descartados por el filtro en el medio se releen y se vuelven a descartar.
+   */
+  void rewind(List<ConsumerRecord<String, byte[]>> records, int failed, Consumer<?, ?> consumer) {
+    Map<TopicPartition, OffsetAndMetadata> commit = new LinkedHashMap<>();
+    Map<TopicPartition, Long> replayFrom = new LinkedHashMap<>();
+    for (int i = 0; i < records.size(); i++) {
+      ConsumerRecord<String, byte[]> record = records.get(i);
+      TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+      if (i >= failed) {
+        replayFrom.putIfAbsent(partition, record.offset());
+      } else if (!replayFrom.containsKey(partition)) {
+        commit.put(partition, new OffsetAndMetadata(record.offset() + 1));
+      }
+    }
+    replayFrom.forEach((partition, offset) -> commit.put(partition, new OffsetAndMetadata(offset)));
+    consumer.commitSync(commit);
+    replayFrom.forEach(consumer::seek);
+    log.warn("Replaying {} partition(s) from {} after a failed record", replayFrom.size(), replayFrom);
+    try {
+      Thread.sleep(retryBackoff.toMillis()); // muy por debajo de max.poll.interval.ms
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
   }
 
-  @KafkaListener(topics = "hexagonal-orders-dev-order-confirmed", groupId = "delivery-service")
-  public void onMessage(@Payload String payload) {
+  /**
+   * Procesa los records y marca como procesados los que salieron bien; los que fallan se reenvían
+   * a reintento/DLT (sin marcarlos, para que el reintento no se descarte como duplicado). Si el
+   * lote falla entero se reprocesa record por record para aislar al culpable: los handlers
+   * tienen que ser idempotentes. Solo propaga si no se pudo reenviar un fallido.
+   */
+  void handle(List<ConsumerRecord<String, byte[]>> records) {
+    if (records.isEmpty()) {
+      return;
+    }
+    List<RetryTopics.Failure> failures = new ArrayList<>();
     try {
-      OrderConfirmedIntegrationEvent evt =
-          objectMapper.readValue(payload, OrderConfirmedIntegrationEvent.class);
-      System.out.printf("📦 Delivery recibido: orderNumber=%s at=%s (eventType=%s)%n",
-          evt.getOrderNumber(), evt.getConfirmedAt(), evt.getEventType());
-      // TODO: aquí tu lógica createDelivery(...)
+      dispatcher.dispatch(records, (record, e) -> failures.add(RetryTopics.Failure.unreadable(record, e)));
     } catch (Exception e) {
-      System.err.println("Error parseando evento OrderConfirmed: " + payload);
-      e.printStackTrace();
+      failures.clear();
+      if (records.size() > 1) {
+        log.warn("Batch of {} records failed ({}); isolating record by record", records.size(), e.toString());
+      }
+      for (ConsumerRecord<String, byte[]> record : records) {
+        try {
+          dispatcher.dispatch(List.of(record), (r, ex) -> failures.add(RetryTopics.Failure.unreadable(r, ex)));
+        } catch (Exception ex) {
+          failures.add(RetryTopics.Failure.processing(record, ex));
+        }
+      }
+    }
+    retryTopics.forward(failures);
+
+    Set<ConsumerRecord<String, byte[]>> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+    failures.forEach(failure -> failed.add(failure.record()));
+    List<String> keys = new ArrayList<>(records.size());
+    for (ConsumerRecord<String, byte[]> record : records) {
+      String key = ProcessedEventIds.keyOf(record);
+      if (key != null && !failed.contains(record)) {
+        keys.add(key);
+      }
     }
+    // antes del ack: si se cae entre ambos pasos, la relectura se descarta como duplicado
+    processedEventIds.addAll(keys);
+  }
+
+  private boolean alreadyProcessed(ConsumerRecord<String, byte[]> record) {
+    String key = ProcessedEventIds.keyOf(record);
+    return key != null && processedEventIds.contains(key);
+  }
+
+  /** Records publicados antes de los headers: en este tópico solo hay OrderConfirmed. */
+  static String eventTypeOf(ConsumerRecord<String, byte[]> record) {
+    String eventType = EventHeaders.read(record.headers(), EventHeaders.EVENT_TYPE);
+    return eventType != null ? eventType : EVENT_TYPE;
   }
 }
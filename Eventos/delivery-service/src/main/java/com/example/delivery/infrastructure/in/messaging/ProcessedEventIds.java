@@ -0,0 +1,129 @@
+package com.example.delivery.infrastructure.in.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Store de deduplicación de eventos ya procesados. El outbox entrega al menos una vez: un reenvío
+ * trae la misma clave (event-id, o tipo + número de orden si el record no trae headers).
+ * Adelante hay un LRU acotado en memoria; detrás, la tabla processed_event, que sobrevive a
+ * reinicios y rebalanceos. Se consulta por lotes y solo para lo que el LRU no conoce.
+ */
+@Component
+public class ProcessedEventIds {
+
+  private final NamedParameterJdbcTemplate jdbc;
+  private final Map<String, Boolean> recent;
+  private final Duration retention;
+  private final Counter memoryHits;
+  private final Counter storeHits;
+  private final Counter misses;
+
+  public ProcessedEventIds(NamedParameterJdbcTemplate jdbc, MeterRegistry meterRegistry,
+                           @Value("${delivery.dedupe.capacity:10000}") int capacity,
+                           @Value("${delivery.dedupe.retention:7d}") Duration retention) {
+    this.jdbc = jdbc;
+    this.retention = retention;
+    this.recent = new LinkedHashMap<>(capacity, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+        return size() > capacity;
+      }
+    };
+    this.memoryHits = lookups(meterRegistry, "hit_memory");
+    this.storeHits = lookups(meterRegistry, "hit_store");
+    this.misses = lookups(meterRegistry, "miss");
+  }
+
+  private static Counter lookups(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("delivery.dedupe.lookups")
+        .description("Dedupe lookups by result; hit rate = hits / all")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  /** @return la clave de dedupe del record, o null si no tiene ninguna */
+  public static String keyOf(ConsumerRecord<String, byte[]> record) {
+    String eventId = EventHeaders.read(record.headers(), EventHeaders.EVENT_ID);
+    if (eventId != null) {
+      return eventId;
+    }
+    return record.key() == null ? null : OrderConfirmedConsumer.eventTypeOf(record) + ":" + record.key();
+  }
+
+  public boolean contains(String key) {
+    return !findProcessed(List.of(key)).isEmpty();
+  }
+
+  /** @return las claves ya procesadas, con una sola consulta a la tabla para las que no están en el LRU */
+  public Set<String> findProcessed(Collection<String> keys) {
+    Set<String> processed = new HashSet<>();
+    List<String> unknown = new ArrayList<>();
+    synchronized (this) {
+      for (String key : keys) {
+        if (recent.containsKey(key)) {
+          processed.add(key);
+        } else {
+          unknown.add(key);
+        }
+      }
+    }
+    memoryHits.increment(processed.size());
+    if (unknown.isEmpty()) {
+      return processed;
+    }
+    List<String> stored = jdbc.queryForList(
+        "SELECT event_id FROM processed_event WHERE event_id IN (:ids)",
+        new MapSqlParameterSource("ids", unknown), String.class);
+    storeHits.increment(stored.size());
+    misses.increment(unknown.size() - stored.size());
+    remember(stored);
+    processed.addAll(stored);
+    return processed;
+  }
+
+  public void add(String key) {
+    addAll(List.of(key));
+  }
+
+  /** Una sola escritura por lote (MERGE de H2: una clave repetida no falla). */
+  public void addAll(Collection<String> keys) {
+    if (keys.isEmpty()) {
+      return;
+    }
+    Timestamp now = Timestamp.from(Instant.now());
+    MapSqlParameterSource[] rows = keys.stream()
+        .map(key -> new MapSqlParameterSource("id", key).addValue("at", now))
+        .toArray(MapSqlParameterSource[]::new);
+    jdbc.batchUpdate("MERGE INTO processed_event (event_id, processed_at) KEY (event_id) VALUES (:id, :at)", rows);
+    remember(keys);
+  }
+
+  private synchronized void remember(Collection<String> keys) {
+    keys.forEach(key -> recent.put(key, Boolean.TRUE));
+  }
+
+  /** Un duplicado más viejo que la retención ya no puede llegar (el outbox lo habría purgado). */
+  @Scheduled(fixedDelayString = "${delivery.dedupe.purge-interval-ms:3600000}")
+  public void purgeExpired() {
+    jdbc.update("DELETE FROM processed_event WHERE processed_at < :cutoff",
+        new MapSqlParameterSource("cutoff", Timestamp.from(Instant.now().minus(retention))));
+  }
+}
@@ -0,0 +1,84 @@
+package com.example.delivery.infrastructure.in.messaging;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.BatchAcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Un contenedor por tópico de reintento, creado con la misma factory (lotes, ack manual) que el
+ * listener principal. Cada contenedor espera solo por su propio nivel: los records de un nivel
+ * tienen todos la misma espera, así que el primero que no venció marca hasta dónde procesar; el
+ * resto se relee con {@code nack}, que pausa el consumer hasta que venza sin bloquear el poll.
+ */
+@Component
+public class RetryTopicListeners implements SmartLifecycle {
+
+  private final OrderConfirmedConsumer consumer;
+  private final IntegrationEventFilter filter;
+  private final List<ConcurrentMessageListenerContainer<String, byte[]>> containers = new ArrayList<>();
+  private volatile boolean running;
+
+  @SuppressWarnings("unchecked")
+  public RetryTopicListeners(ConcurrentKafkaListenerContainerFactory<?, ?> containerFactory,
+                             RetryTopics retryTopics, OrderConfirmedConsumer consumer,
+                             IntegrationEventFilter filter) {
+    this.consumer = consumer;
+    this.filter = filter;
+    ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+        (ConcurrentKafkaListenerContainerFactory<String, byte[]>) containerFactory;
+    for (String topic : retryTopics.retryTopicNames()) {
+      ConcurrentMessageListenerContainer<String, byte[]> container = factory.createContainer(topic);
+      container.getContainerProperties().setGroupId("delivery-service");
+      container.setConcurrency(1);
+      container.setBeanName(topic);
+      container.setupMessageListener((BatchAcknowledgingMessageListener<String, byte[]>) this::onRetryBatch);
+      containers.add(container);
+    }
+  }
+
+  void onRetryBatch(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+    long now = System.currentTimeMillis();
+    int firstNotDue = 0;
+    while (firstNotDue < records.size() && RetryTopics.dueAtOf(records.get(firstNotDue)) <= now) {
+      firstNotDue++;
+    }
+    consumer.handle(filter.filterBatch(records.subList(0, firstNotDue)));
+    if (firstNotDue == records.size()) {
+      ack.acknowledge();
+    } else {
+      long wait = RetryTopics.dueAtOf(records.get(firstNotDue)) - now;
+      ack.nack(firstNotDue, Duration.ofMillis(wait));
+    }
+  }
+
+  @Override
+  public void start() {
+    containers.stream().filter(AbstractMessageListenerContainer::isAutoStartup).forEach(container -> container.start());
+    running = true;
+  }
+
+  @Override
+  public void stop() {
+    containers.forEach(container -> container.stop());
+    running = false;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Override
+  public int getPhase() {
+    return AbstractMessageListenerContainer.DEFAULT_PHASE;
+  }
+}
@@ -0,0 +1,152 @@
+package com.example.delivery.infrastructure.in.messaging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reintentos sin bloquear la partición: un record que falla se reenvía a {@code <tópico>-retry-N}
+ * con la hora a la que vence su espera ({@code delivery.retry.delays[N]}) y el consumer principal
+ * sigue con el resto. Agotados los niveles, o si el payload no se puede leer, va a {@code <tópico>-dlt}.
+ */
+@Component("retryTopics")
+public class RetryTopics {
+
+  static final String ATTEMPT = "retry-attempt";
+  static final String DUE_AT = "retry-due-at";
+  static final String ORIGINAL_TOPIC = "retry-original-topic";
+  static final String EXCEPTION = "retry-exception";
+
+  private static final Logger log = LoggerFactory.getLogger(RetryTopics.class);
+  private static final int MAX_EXCEPTION_LENGTH = 512;
+
+  private final KafkaTemplate<String, byte[]> kafkaTemplate;
+  private final MeterRegistry meterRegistry;
+  private final String mainTopic;
+  private final List<Duration> delays;
+  private final Duration sendTimeout;
+
+  public RetryTopics(KafkaTemplate<String, byte[]> kafkaTemplate, MeterRegistry meterRegistry,
+                     @Value("${delivery.topic.order-confirmed}") String mainTopic,
+                     @Value("${delivery.retry.delays:10s,1m,10m}") List<Duration> delays,
+                     @Value("${delivery.retry.send-timeout:10s}") Duration sendTimeout) {
+    this.kafkaTemplate = kafkaTemplate;
+    this.meterRegistry = meterRegistry;
+    this.mainTopic = mainTopic;
+    this.delays = List.copyOf(delays);
+    this.sendTimeout = sendTimeout;
+  }
+
+  public String mainTopic() {
+    return mainTopic;
+  }
+
+  public List<String> retryTopicNames() {
+    List<String> names = new ArrayList<>(delays.size());
+    for (int level = 0; level < delays.size(); level++) {
+      names.add(retryTopic(level));
+    }
+    return names;
+  }
+
+  public String retryTopic(int level) {
+    return mainTopic + "-retry-" + level;
+  }
+
+  public String deadLetterTopic() {
+    return mainTopic + "-dlt";
+  }
+
+  /**
+   * Reenvía los fallidos a su próximo tópico y espera la confirmación del broker: el caller hace
+   * el ack recién después, así un fallo no se pierde entre ambos pasos.
+   */
+  public void forward(List<Failure> failures) {
+    if (failures.isEmpty()) {
+      return;
+    }
+    List<CompletableFuture<?>> sends = new ArrayList<>(failures.size());
+    for (Failure failure : failures) {
+      sends.add(kafkaTemplate.send(next(failure)));
+    }
+    try {
+      CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+          .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (Exception e) {
+      throw new IllegalStateException("Could not forward " + failures.size() + " failed records", e);
+    }
+  }
+
+  private ProducerRecord<String, byte[]> next(Failure failure) {
+    ConsumerRecord<String, byte[]> record = failure.record();
+    int attempt = attemptOf(record);
+    boolean exhausted = !failure.retryable() || attempt >= delays.size();
+    String topic = exhausted ? deadLetterTopic() : retryTopic(attempt);
+    ProducerRecord<String, byte[]> next = new ProducerRecord<>(topic, record.key(), record.value());
+    for (Header header : record.headers()) {
+      if (!header.key().startsWith("retry-")) {
+        next.headers().add(header);
+      }
+    }
+    String originalTopic = EventHeaders.read(record.headers(), ORIGINAL_TOPIC);
+    next.headers()
+        .add(ORIGINAL_TOPIC, utf8(originalTopic != null ? originalTopic : record.topic()))
+        .add(ATTEMPT, utf8(Integer.toString(attempt + 1)))
+        .add(EXCEPTION, utf8(describe(failure.cause())));
+    if (!exhausted) {
+      long dueAt = System.currentTimeMillis() + delays.get(attempt).toMillis();
+      next.headers().add(DUE_AT, utf8(Long.toString(dueAt)));
+    }
+    meterRegistry.counter("delivery.retry.records", "topic", topic,
+        "reason", failure.retryable() ? "processing" : "unreadable").increment();
+    log.warn("Forwarding {}-{}@{} (key {}) to {} after attempt {}: {}", record.topic(), record.partition(),
+        record.offset(), record.key(), topic, attempt + 1, describe(failure.cause()));
+    return next;
+  }
+
+  /** Intentos ya hechos según el header; 0 para un record del tópico principal. */
+  static int attemptOf(ConsumerRecord<String, byte[]> record) {
+    String attempt = EventHeaders.read(record.headers(), ATTEMPT);
+    return attempt != null ? Integer.parseInt(attempt) : 0;
+  }
+
+  /** Epoch millis a partir del cual se puede reintentar; 0 si no trae el header. */
+  static long dueAtOf(ConsumerRecord<String, byte[]> record) {
+    String dueAt = EventHeaders.read(record.headers(), DUE_AT);
+    return dueAt != null ? Long.parseLong(dueAt) : 0L;
+  }
+
+  private static String describe(Throwable cause) {
+    String description = cause.getClass().getName() + ": " + cause.getMessage();
+    return description.length() > MAX_EXCEPTION_LENGTH ? description.substring(0, MAX_EXCEPTION_LENGTH) : description;
+  }
+
+  private static byte[] utf8(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /** @param retryable false si reintentar no lo arregla (payload ilegible): va directo al DLT */
+  public record Failure(ConsumerRecord<String, byte[]> record, Exception cause, boolean retryable) {
+
+    static Failure processing(ConsumerRecord<String, byte[]> record, Exception cause) {
+      return new Failure(record, cause, true);
+    }
+
+    static Failure unreadable(ConsumerRecord<String, byte[]> record, Exception cause) {
+      return new Failure(record, cause, false);
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package com.example.delivery.infrastructure.in.web;
+
+import com.example.delivery.application.port.out.CustomerAddressRepository;
+import com.example.delivery.domain.model.Address;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/** Carga de la copia local de direcciones que usa el agrupador de rutas. */
+@RestController
+@RequestMapping("/api/customers")
+public class CustomerAddressController {
+
+  private final CustomerAddressRepository customerAddresses;
+
+  public CustomerAddressController(CustomerAddressRepository customerAddresses) {
+    this.customerAddresses = customerAddresses;
+  }
+
+  @PutMapping("/{customerId}/address")
+  public ResponseEntity<Void> putAddress(@PathVariable String customerId, @RequestBody Address address) {
+    if (isBlank(address.street()) || isBlank(address.city()) || isBlank(address.postalCode())) {
+      return ResponseEntity.badRequest().build();
+    }
+    customerAddresses.save(customerId, address);
+    return ResponseEntity.noContent().build();
+  }
+
+  private static boolean isBlank(String value) {
+    return value == null || value.isBlank();
+  }
+}
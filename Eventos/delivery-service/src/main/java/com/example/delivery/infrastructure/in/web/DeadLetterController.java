@@ -0,0 +1,26 @@
+package com.example.delivery.infrastructure.in.web;
+
+import com.example.delivery.infrastructure.in.messaging.DeadLetterTopic;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/dlt")
+public class DeadLetterController {
+
+  private final DeadLetterTopic deadLetterTopic;
+
+  public DeadLetterController(DeadLetterTopic deadLetterTopic) {
+    this.deadLetterTopic = deadLetterTopic;
+  }
+
+  /** Reinyecta en bloque records del DLT en su tópico original, una vez corregida la causa. */
+  @PostMapping("/replay")
+  public Map<String, Integer> replay(@RequestParam(defaultValue = "1000") int max) {
+    return Map.of("replayed", deadLetterTopic.replay(max));
+  }
+}
@@ -0,0 +1,23 @@
+package com.example.delivery.infrastructure.in.web;
+
+import com.example.delivery.application.service.RouteSequencingService;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/routes")
+public class RouteController {
+
+  private final RouteSequencingService sequencingService;
+
+  public RouteController(RouteSequencingService sequencingService) {
+    this.sequencingService = sequencingService;
+  }
+
+  /** Al inicio del turno: ordena las paradas de todas las rutas pendientes. */
+  @PostMapping("/sequence")
+  public RouteSequencingService.Summary sequence() {
+    return sequencingService.sequencePendingRoutes();
+  }
+}
@@ -0,0 +1,62 @@
+package com.example.delivery.infrastructure.out.persistence;
+
+import com.example.delivery.application.port.out.CustomerAddressRepository;
+import com.example.delivery.domain.model.Address;
+import com.example.delivery.domain.model.GeoPoint;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+@Repository
+public class JdbcCustomerAddressRepository implements CustomerAddressRepository {
+
+  private final NamedParameterJdbcTemplate jdbc;
+
+  public JdbcCustomerAddressRepository(NamedParameterJdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  /** Una sola consulta por lote. */
+  @Override
+  public Map<String, Address> findByCustomerIds(Collection<String> customerIds) {
+    Map<String, Address> addresses = new HashMap<>();
+    if (customerIds.isEmpty()) {
+      return addresses;
+    }
+    jdbc.query("SELECT customer_id, street, city, postal_code, latitude, longitude FROM customer_address "
+            + "WHERE customer_id IN (:ids)",
+        new MapSqlParameterSource("ids", customerIds),
+        rs -> {
+          addresses.put(rs.getString("customer_id"),
+              new Address(rs.getString("street"), rs.getString("city"), rs.getString("postal_code"), location(rs)));
+        });
+    return addresses;
+  }
+
+  @Override
+  public void save(String customerId, Address address) {
+    GeoPoint location = address.location();
+    jdbc.update("MERGE INTO customer_address (customer_id, street, city, postal_code, latitude, longitude) "
+            + "KEY (customer_id) VALUES (:customerId, :street, :city, :postalCode, :latitude, :longitude)",
+        new MapSqlParameterSource("customerId", customerId)
+            .addValue("street", address.street())
+            .addValue("city", address.city())
+            .addValue("postalCode", address.postalCode())
+            .addValue("latitude", location != null ? location.latitude() : null)
+            .addValue("longitude", location != null ? location.longitude() : null));
+  }
+
+  static GeoPoint location(ResultSet rs) throws SQLException {
+    double latitude = rs.getDouble("latitude");
+    if (rs.wasNull()) {
+      return null;
+    }
+    return new GeoPoint(latitude, rs.getDouble("longitude"));
+  }
+}
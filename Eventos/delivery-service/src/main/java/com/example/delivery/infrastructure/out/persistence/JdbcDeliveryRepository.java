@@ -0,0 +1,156 @@
+package com.example.delivery.infrastructure.out.persistence;
+
+import com.example.delivery.application.port.out.DeliveryRepository;
+import com.example.delivery.domain.model.Address;
+import com.example.delivery.domain.model.Delivery;
+import com.example.delivery.domain.model.DeliveryStatus;
+import com.example.delivery.domain.model.Route;
+import com.example.delivery.domain.model.RoutePlan;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Escrituras por lote con JDBC: un batch de INSERT por lote consumido, un UPDATE por ruta. */
+@Repository
+public class JdbcDeliveryRepository implements DeliveryRepository {
+
+  private static final String INSERT_IF_ABSENT =
+      "INSERT INTO delivery (delivery_id, order_number, customer_id, status, street, city, postal_code, "
+          + "latitude, longitude, window_start, scheduled_at, created_at) "
+          + "SELECT :deliveryId, :orderNumber, :customerId, :status, :street, :city, :postalCode, "
+          + ":latitude, :longitude, :windowStart, :scheduledAt, :createdAt "
+          + "WHERE NOT EXISTS (SELECT 1 FROM delivery WHERE order_number = :orderNumber)";
+
+  private final NamedParameterJdbcTemplate jdbc;
+
+  public JdbcDeliveryRepository(NamedParameterJdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  @Override
+  @Transactional
+  public List<Delivery> saveNew(List<Delivery> deliveries) {
+    if (deliveries.isEmpty()) {
+      return List.of();
+    }
+    Timestamp now = Timestamp.from(Instant.now());
+    MapSqlParameterSource[] rows = deliveries.stream()
+        .map(delivery -> toRow(delivery, now))
+        .toArray(MapSqlParameterSource[]::new);
+    int[] counts = jdbc.batchUpdate(INSERT_IF_ABSENT, rows);
+    List<Delivery> inserted = new ArrayList<>(deliveries.size());
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] != 0) { // SUCCESS_NO_INFO (-2) cuenta como insertada
+        inserted.add(deliveries.get(i));
+      }
+    }
+    return inserted;
+  }
+
+  @Override
+  @Transactional
+  public void assignRoute(Route route) {
+    jdbc.update("INSERT INTO delivery_route (route_id, postal_code, window_start, stops, created_at) "
+            + "VALUES (:routeId, :postalCode, :windowStart, :stops, :createdAt)",
+        new MapSqlParameterSource("routeId", route.routeId())
+            .addValue("postalCode", route.postalCode())
+            .addValue("windowStart", Timestamp.valueOf(route.windowStart()))
+            .addValue("stops", route.orderNumbers().size())
+            .addValue("createdAt", Timestamp.from(Instant.now())));
+    jdbc.update("UPDATE delivery SET route_id = :routeId WHERE order_number IN (:orderNumbers) AND route_id IS NULL",
+        new MapSqlParameterSource("routeId", route.routeId()).addValue("orderNumbers", route.orderNumbers()));
+  }
+
+  @Override
+  public List<Delivery> findUnrouted() {
+    return jdbc.query("SELECT * FROM delivery WHERE route_id IS NULL ORDER BY window_start",
+        new MapSqlParameterSource(), (rs, rowNum) -> toDelivery(rs));
+  }
+
+  @Override
+  public Map<String, List<Delivery>> findUnsequencedRoutes(int limit) {
+    List<String> routeIds = jdbc.queryForList(
+        "SELECT route_id FROM delivery_route WHERE sequenced_at IS NULL ORDER BY window_start LIMIT :limit",
+        new MapSqlParameterSource("limit", limit), String.class);
+    Map<String, List<Delivery>> routes = new LinkedHashMap<>();
+    if (routeIds.isEmpty()) {
+      return routes;
+    }
+    routeIds.forEach(routeId -> routes.put(routeId, new ArrayList<>()));
+    jdbc.query("SELECT * FROM delivery WHERE route_id IN (:routeIds) ORDER BY created_at",
+        new MapSqlParameterSource("routeIds", routeIds),
+        rs -> {
+          Delivery delivery = toDelivery(rs);
+          routes.get(delivery.routeId()).add(delivery);
+        });
+    return routes;
+  }
+
+  @Override
+  @Transactional
+  public void savePlans(List<RoutePlan> plans) {
+    if (plans.isEmpty()) {
+      return;
+    }
+    List<MapSqlParameterSource> stops = new ArrayList<>();
+    for (RoutePlan plan : plans) {
+      for (int i = 0; i < plan.orderNumbers().size(); i++) {
+        stops.add(new MapSqlParameterSource("orderNumber", plan.orderNumbers().get(i)).addValue("sequence", i + 1));
+      }
+    }
+    jdbc.batchUpdate("UPDATE delivery SET stop_sequence = :sequence WHERE order_number = :orderNumber",
+        stops.toArray(MapSqlParameterSource[]::new));
+    Timestamp now = Timestamp.from(Instant.now());
+    jdbc.batchUpdate("UPDATE delivery_route SET distance_km = :distanceKm, sequenced_at = :sequencedAt "
+            + "WHERE route_id = :routeId",
+        plans.stream()
+            .map(plan -> new MapSqlParameterSource("routeId", plan.routeId())
+                .addValue("distanceKm", plan.distanceKm())
+                .addValue("sequencedAt", now))
+            .toArray(MapSqlParameterSource[]::new));
+  }
+
+  private static MapSqlParameterSource toRow(Delivery delivery, Timestamp createdAt) {
+    Address destination = delivery.destination();
+    return new MapSqlParameterSource("deliveryId", delivery.deliveryId())
+        .addValue("orderNumber", delivery.orderNumber())
+        .addValue("customerId", delivery.customerId())
+        .addValue("status", delivery.status().name())
+        .addValue("street", destination != null ? destination.street() : null)
+        .addValue("city", destination != null ? destination.city() : null)
+        .addValue("postalCode", destination != null ? destination.postalCode() : null)
+        .addValue("latitude", destination != null && destination.location() != null ? destination.location().latitude() : null)
+        .addValue("longitude", destination != null && destination.location() != null ? destination.location().longitude() : null)
+        .addValue("windowStart", Timestamp.valueOf(delivery.windowStart()))
+        .addValue("scheduledAt", delivery.scheduledAt() != null ? Timestamp.valueOf(delivery.scheduledAt()) : null)
+        .addValue("createdAt", createdAt);
+  }
+
+  private static Delivery toDelivery(ResultSet rs) throws SQLException {
+    String postalCode = rs.getString("postal_code");
+    Address destination = postalCode != null
+        ? new Address(rs.getString("street"), rs.getString("city"), postalCode, JdbcCustomerAddressRepository.location(rs))
+        : null;
+    Timestamp scheduledAt = rs.getTimestamp("scheduled_at");
+    return new Delivery(
+        rs.getString("delivery_id"),
+        rs.getString("order_number"),
+        rs.getString("customer_id"),
+        destination,
+        DeliveryStatus.valueOf(rs.getString("status")),
+        rs.getTimestamp("window_start").toLocalDateTime(),
+        scheduledAt != null ? scheduledAt.toLocalDateTime() : null,
+        rs.getString("route_id"));
+  }
+}
@@ -0,0 +1,46 @@
+CREATE TABLE IF NOT EXISTS processed_event (
+  event_id     VARCHAR(128) NOT NULL PRIMARY KEY,
+  processed_at TIMESTAMP    NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_processed_event_at ON processed_event (processed_at);
+
+-- Copia local de direcciones: orders solo publica el customerId
+CREATE TABLE IF NOT EXISTS customer_address (
+  customer_id VARCHAR(64)  NOT NULL PRIMARY KEY,
+  street      VARCHAR(255) NOT NULL,
+  city        VARCHAR(128) NOT NULL,
+  postal_code VARCHAR(16)  NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS delivery_route (
+  route_id     VARCHAR(36) NOT NULL PRIMARY KEY,
+  postal_code  VARCHAR(16) NOT NULL,
+  window_start TIMESTAMP   NOT NULL,
+  stops        INT         NOT NULL,
+  created_at   TIMESTAMP   NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS delivery (
+  delivery_id  VARCHAR(36)  NOT NULL PRIMARY KEY,
+  order_number VARCHAR(64)  NOT NULL UNIQUE,
+  customer_id  VARCHAR(64),
+  route_id     VARCHAR(36),
+  status       VARCHAR(16)  NOT NULL,
+  street       VARCHAR(255),
+  city         VARCHAR(128),
+  postal_code  VARCHAR(16),
+  window_start TIMESTAMP    NOT NULL,
+  scheduled_at TIMESTAMP,
+  created_at   TIMESTAMP    NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_delivery_route ON delivery (route_id);
+
+-- Coordenadas para secuenciar paradas; orden de parada y distancia una vez secuenciada la ruta
+ALTER TABLE customer_address ADD COLUMN IF NOT EXISTS latitude DOUBLE;
+ALTER TABLE customer_address ADD COLUMN IF NOT EXISTS longitude DOUBLE;
+ALTER TABLE delivery ADD COLUMN IF NOT EXISTS latitude DOUBLE;
+ALTER TABLE delivery ADD COLUMN IF NOT EXISTS longitude DOUBLE;
+ALTER TABLE delivery ADD COLUMN IF NOT EXISTS stop_sequence INT;
+ALTER TABLE delivery_route ADD COLUMN IF NOT EXISTS distance_km DOUBLE;
+ALTER TABLE delivery_route ADD COLUMN IF NOT EXISTS sequenced_at TIMESTAMP;
+CREATE INDEX IF NOT EXISTS idx_delivery_route_sequenced ON delivery_route (sequenced_at);
@@ -0,0 +1,87 @@
+package com.example.delivery.application.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConfirmedAtDeserializerTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "2024-06-18T10:15:30",
+      "2024-02-29T23:59:59",
+      "0001-01-01T00:00:00",
+      "2024-06-18T10:15:30.1",
+      "2024-06-18T10:15:30.12",
+      "2024-06-18T10:15:30.123",
+      "2024-06-18T10:15:30.000450",
+      "2024-06-18T10:15:30.123456789"})
+  void fastPathMatchesLocalDateTimeParse(String text) throws Exception {
+    assertThat(fromString(text)).isEqualTo(LocalDateTime.parse(text));
+    assertThat(fromBytes(text)).isEqualTo(LocalDateTime.parse(text));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "2024-06-18T10:15",
+      "2024-06-18T10:15:30.",
+      "+12024-06-18T10:15:30",
+      "2024-06-18t10:15:30"})
+  void nonCanonicalInputFallsBackToTheStandardParser(String text) throws Exception {
+    LocalDateTime expected;
+    try {
+      expected = LocalDateTime.parse(text);
+    } catch (RuntimeException e) {
+      assertThatThrownBy(() -> fromString(text)).isInstanceOf(InvalidFormatException.class);
+      return;
+    }
+    assertThat(fromString(text)).isEqualTo(expected);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "2024-13-01T10:15:30",
+      "2023-02-29T10:15:30",
+      "2024-06-18T24:00:00",
+      "2024-06-18T10:60:30",
+      "2024-06-18T10:15:3x",
+      "2024-06-18T10:15:30.1234567890",
+      "2024-06-18T10:15:30.12a",
+      "2024-06-18 10:15:30",
+      "not a date",
+      ""})
+  void rejectsMalformedOrOutOfRangeDates(String text) {
+    assertThatThrownBy(() -> fromString(text)).isInstanceOf(InvalidFormatException.class);
+    assertThatThrownBy(() -> LocalDateTime.parse(text)).isInstanceOf(RuntimeException.class);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"12345", "true", "[2024,6,18]"})
+  void rejectsNonStringValues(String json) {
+    assertThatThrownBy(() -> objectMapper.readValue("{\"confirmedAt\":" + json + "}",
+        OrderConfirmedIntegrationEvent.class)).isInstanceOf(MismatchedInputException.class);
+  }
+
+  private LocalDateTime fromString(String text) throws Exception {
+    return objectMapper.readValue(json(text), OrderConfirmedIntegrationEvent.class).getConfirmedAt();
+  }
+
+  private LocalDateTime fromBytes(String text) throws Exception {
+    return objectMapper.readValue(json(text).getBytes(StandardCharsets.UTF_8), OrderConfirmedIntegrationEvent.class)
+        .getConfirmedAt();
+  }
+
+  private static String json(String confirmedAt) {
+    return "{\"orderNumber\":\"N1\",\"eventType\":\"OrderConfirmed\",\"confirmedAt\":\"" + confirmedAt + "\"}";
+  }
+}
@@ -0,0 +1,69 @@
+package com.example.delivery.application.service;
+
+import com.example.delivery.application.event.OrderConfirmedIntegrationEvent;
+import com.example.delivery.application.port.out.CustomerAddressRepository;
+import com.example.delivery.application.port.out.DeliveryRepository;
+import com.example.delivery.domain.model.Address;
+import com.example.delivery.domain.model.Delivery;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DeliveryServiceTest {
+
+  private final DeliveryRepository deliveryRepository = mock(DeliveryRepository.class);
+  private final CustomerAddressRepository customerAddresses = mock(CustomerAddressRepository.class);
+  private final RouteBatcher routeBatcher = mock(RouteBatcher.class);
+  private final DeliveryService service = new DeliveryService(deliveryRepository, customerAddresses, routeBatcher);
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void persistsTheWholeBatchInOneWriteAndBinsOnlyWhatWasInserted() {
+    LocalDateTime window = LocalDateTime.of(2024, 1, 1, 10, 0);
+    when(routeBatcher.windowStart(window)).thenReturn(window);
+    when(routeBatcher.windowEnd(window)).thenReturn(window.plusHours(2));
+    Address address = new Address("Street", "City", "1000", null);
+    when(customerAddresses.findByCustomerIds(Set.of("C1", "C2"))).thenReturn(Map.of("C1", address));
+    // N2 ya tenía entrega: saveNew no la devuelve
+    when(deliveryRepository.saveNew(anyList())).thenAnswer(invocation -> {
+      List<Delivery> deliveries = invocation.getArgument(0);
+      return deliveries.stream().filter(delivery -> !delivery.orderNumber().equals("N2")).toList();
+    });
+
+    service.createDeliveries(List.of(event("N1", "C1", window), event("N2", "C2", window), event("N3", null, window)));
+
+    ArgumentCaptor<List<Delivery>> saved = ArgumentCaptor.forClass(List.class);
+    verify(deliveryRepository).saveNew(saved.capture());
+    assertThat(saved.getValue()).extracting(Delivery::orderNumber).containsExactly("N1", "N2", "N3");
+    assertThat(saved.getValue().get(0).destination()).isEqualTo(address);
+    assertThat(saved.getValue().get(1).destination()).isNull();
+    assertThat(saved.getValue()).allSatisfy(delivery -> {
+      assertThat(delivery.windowStart()).isEqualTo(window);
+      assertThat(delivery.scheduledAt()).isEqualTo(window.plusHours(2));
+      assertThat(delivery.routeId()).isNull();
+    });
+
+    ArgumentCaptor<List<Delivery>> binned = ArgumentCaptor.forClass(List.class);
+    verify(routeBatcher).add(binned.capture());
+    assertThat(binned.getValue()).extracting(Delivery::orderNumber).containsExactly("N1", "N3");
+  }
+
+  private static OrderConfirmedIntegrationEvent event(String orderNumber, String customerId, LocalDateTime confirmedAt) {
+    OrderConfirmedIntegrationEvent event = new OrderConfirmedIntegrationEvent();
+    event.setOrderNumber(orderNumber);
+    event.setCustomerId(customerId);
+    event.setEventType("OrderConfirmed");
+    event.setConfirmedAt(confirmedAt);
+    return event;
+  }
+}
@@ -0,0 +1,96 @@
+package com.example.delivery.application.service;
+
+import com.example.delivery.application.port.out.DeliveryRepository;
+import com.example.delivery.domain.model.Address;
+import com.example.delivery.domain.model.Delivery;
+import com.example.delivery.domain.model.DeliveryStatus;
+import com.example.delivery.domain.model.Route;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RouteBatcherTest {
+
+  private static final LocalDateTime WINDOW = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+  private final DeliveryRepository repository = mock(DeliveryRepository.class);
+  private final RouteBatcher batcher = new RouteBatcher(repository, 3, Duration.ofMinutes(5), Duration.ofHours(2));
+
+  @Test
+  void startsBeforeTheKafkaListenerContainers() {
+    assertThat(batcher.getPhase()).isLessThan(AbstractMessageListenerContainer.DEFAULT_PHASE);
+  }
+
+  @Test
+  void reloadsUnroutedDeliveriesOnStart() {
+    when(repository.findUnrouted()).thenReturn(List.of(delivery("N1", "1000"), delivery("N2", "1000")));
+
+    batcher.start();
+    batcher.add(List.of(delivery("N3", "1000")));
+
+    assertThat(batcher.isRunning()).isTrue();
+    assertThat(closedRoutes(1).get(0).orderNumbers()).containsExactly("N1", "N2", "N3");
+  }
+
+  @Test
+  void doesNotAddTheSameOrderTwiceToABin() {
+    when(repository.findUnrouted()).thenReturn(List.of(delivery("N1", "1000"), delivery("N2", "1000")));
+    batcher.start();
+
+    // relectura de N1 y N2 después de la recarga: no cuentan como paradas nuevas
+    batcher.add(List.of(delivery("N1", "1000"), delivery("N2", "1000")));
+    verify(repository, never()).assignRoute(any());
+
+    batcher.add(List.of(delivery("N3", "1000")));
+    assertThat(closedRoutes(1).get(0).orderNumbers()).containsExactly("N1", "N2", "N3");
+  }
+
+  @Test
+  void groupsByPostalCodeAndWindow() {
+    batcher.add(IntStream.range(0, 4).mapToObj(i -> delivery("A" + i, "1000")).toList());
+    batcher.add(List.of(delivery("B0", "2000"), delivery("U0", null)));
+    verify(repository).assignRoute(any());
+
+    batcher.flushAll();
+
+    List<Route> routes = closedRoutes(4);
+    assertThat(routes.get(0).orderNumbers()).containsExactly("A0", "A1", "A2"); // lleno: se cierra al instante
+    assertThat(routes.subList(1, 4)).extracting(Route::postalCode)
+        .containsExactlyInAnyOrder("1000", "2000", RouteBatcher.UNKNOWN_POSTAL_CODE);
+    assertThat(routes.subList(1, 4)).extracting(Route::orderNumbers)
+        .containsExactlyInAnyOrder(List.of("A3"), List.of("B0"), List.of("U0"));
+  }
+
+  @Test
+  void assignsWindowsOfTheConfiguredSize() {
+    LocalDateTime start = batcher.windowStart(LocalDateTime.of(2024, 1, 1, 11, 59, 59));
+
+    assertThat(start).isEqualTo(WINDOW);
+    assertThat(batcher.windowEnd(start)).isEqualTo(WINDOW.plusHours(2));
+  }
+
+  private List<Route> closedRoutes(int count) {
+    ArgumentCaptor<Route> routes = ArgumentCaptor.forClass(Route.class);
+    verify(repository, times(count)).assignRoute(routes.capture());
+    return routes.getAllValues();
+  }
+
+  private static Delivery delivery(String orderNumber, String postalCode) {
+    Address address = postalCode == null ? null : new Address("Street", "City", postalCode, null);
+    return new Delivery(orderNumber + "-id", orderNumber, "C1", address, DeliveryStatus.PENDING, WINDOW,
+        WINDOW.plusHours(2), null);
+  }
+}
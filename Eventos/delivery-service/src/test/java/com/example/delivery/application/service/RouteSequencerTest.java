@@ -0,0 +1,147 @@
+package com.example.delivery.application.service;
+
+import com.example.delivery.domain.model.Address;
+import com.example.delivery.domain.model.Delivery;
+import com.example.delivery.domain.model.DeliveryStatus;
+import com.example.delivery.domain.model.GeoPoint;
+import com.example.delivery.domain.model.RoutePlan;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RouteSequencerTest {
+
+  private static final GeoPoint DEPOT = new GeoPoint(-33.4489, -70.6693);
+
+  private final RouteSequencer sequencer = new RouteSequencer(DEPOT.latitude(), DEPOT.longitude(),
+      Duration.ofSeconds(5), 2);
+
+  @AfterEach
+  void shutdown() {
+    sequencer.shutdown();
+  }
+
+  @Test
+  void visitsStopsOnALineInDistanceOrder() {
+    List<Delivery> stops = List.of(stop("N3", 0.03), stop("N1", 0.01), stop("N4", 0.04), stop("N2", 0.02));
+
+    RoutePlan plan = sequencer.solve("R1", stops);
+
+    assertThat(plan.orderNumbers()).isIn(List.of("N1", "N2", "N3", "N4"), List.of("N4", "N3", "N2", "N1"));
+    double farthest = DEPOT.distanceKm(location(0.04));
+    assertThat(plan.distanceKm()).isCloseTo(2 * farthest, within(1e-6));
+    assertThat(plan.converged()).isTrue();
+  }
+
+  @Test
+  void putsStopsWithoutCoordinatesLastInArrivalOrder() {
+    List<Delivery> stops = List.of(unlocated("U1"), stop("N1", 0.01), unlocated("U2"), stop("N2", 0.02));
+
+    RoutePlan plan = sequencer.solve("R1", stops);
+
+    assertThat(plan.orderNumbers()).hasSize(4).endsWith("U1", "U2");
+  }
+
+  @Test
+  void leavesNoImproving2OptMove() {
+    Random random = new Random(42);
+    List<Delivery> stops = new ArrayList<>();
+    for (int i = 0; i < 60; i++) {
+      stops.add(delivery("N" + i, new GeoPoint(DEPOT.latitude() + random.nextDouble() * 0.2 - 0.1,
+          DEPOT.longitude() + random.nextDouble() * 0.2 - 0.1)));
+    }
+
+    RoutePlan plan = sequencer.solve("R1", stops);
+
+    Map<String, GeoPoint> byOrder = stops.stream()
+        .collect(Collectors.toMap(Delivery::orderNumber, stop -> stop.destination().location()));
+    List<GeoPoint> tour = new ArrayList<>();
+    tour.add(DEPOT);
+    plan.orderNumbers().forEach(orderNumber -> tour.add(byOrder.get(orderNumber)));
+
+    assertThat(plan.orderNumbers()).containsExactlyInAnyOrderElementsOf(byOrder.keySet());
+    assertThat(plan.distanceKm()).isCloseTo(length(tour), within(1e-6));
+    int n = tour.size();
+    for (int i = 0; i < n - 2; i++) {
+      for (int j = i + 2; j < n; j++) {
+        if ((j + 1) % n == i) {
+          continue;
+        }
+        GeoPoint a = tour.get(i), b = tour.get(i + 1), c = tour.get(j), d = tour.get((j + 1) % n);
+        double gain = a.distanceKm(b) + c.distanceKm(d) - a.distanceKm(c) - b.distanceKm(d);
+        assertThat(gain).as("2-opt move %d/%d", i, j).isLessThan(1e-6);
+      }
+    }
+  }
+
+  @Test
+  void reportsRoutesCutByTheTimeBudget() {
+    RouteSequencer hurried = new RouteSequencer(DEPOT.latitude(), DEPOT.longitude(), Duration.ZERO, 1);
+    try {
+      List<Delivery> stops = new ArrayList<>();
+      for (int i = 0; i < 50; i++) {
+        stops.add(stop("N" + i, (i * 7 % 50) * 0.001));
+      }
+      assertThat(hurried.solve("R1", stops).converged()).isFalse();
+    } finally {
+      hurried.shutdown();
+    }
+  }
+
+  @Test
+  void sequencesEveryRouteInParallel() {
+    Map<String, List<Delivery>> routes = new LinkedHashMap<>();
+    for (int r = 0; r < 8; r++) {
+      List<Delivery> stops = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+        stops.add(stop("R" + r + "-N" + i, i * 0.005));
+      }
+      routes.put("R" + r, stops);
+    }
+
+    List<RoutePlan> plans = sequencer.sequence(routes);
+
+    Map<String, RoutePlan> byRoute = plans.stream().collect(Collectors.toMap(RoutePlan::routeId, Function.identity()));
+    assertThat(byRoute).containsOnlyKeys(routes.keySet());
+    byRoute.forEach((routeId, plan) -> assertThat(plan.orderNumbers())
+        .containsExactlyInAnyOrderElementsOf(routes.get(routeId).stream().map(Delivery::orderNumber).toList()));
+  }
+
+  private static double length(List<GeoPoint> tour) {
+    double total = 0;
+    for (int i = 0; i < tour.size(); i++) {
+      total += tour.get(i).distanceKm(tour.get((i + 1) % tour.size()));
+    }
+    return total;
+  }
+
+  private static GeoPoint location(double eastOfDepot) {
+    return new GeoPoint(DEPOT.latitude(), DEPOT.longitude() + eastOfDepot);
+  }
+
+  private static Delivery stop(String orderNumber, double eastOfDepot) {
+    return delivery(orderNumber, location(eastOfDepot));
+  }
+
+  private static Delivery unlocated(String orderNumber) {
+    return delivery(orderNumber, null);
+  }
+
+  private static Delivery delivery(String orderNumber, GeoPoint location) {
+    LocalDateTime window = LocalDateTime.of(2024, 1, 1, 10, 0);
+    return new Delivery(orderNumber + "-id", orderNumber, "C1", new Address("Street", "City", "1000", location),
+        DeliveryStatus.PENDING, window, window.plusHours(2), "R1");
+  }
+}
@@ -0,0 +1,116 @@
+package com.example.delivery.infrastructure.in.messaging;
+
+import com.example.delivery.DeliveryApplication;
+import com.example.delivery.application.event.OrderConfirmedIntegrationEvent;
+import com.example.delivery.application.service.DeliveryService;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Modo batch contra un broker embebido: cada poll llega entero a {@link DeliveryService} y se
+ * guarda en una sola escritura; las relecturas con el mismo event-id no crean filas.
+ */
+@SpringBootTest(classes = DeliveryApplication.class, properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "spring.kafka.consumer.auto-offset-reset=earliest",
+    "spring.datasource.url=jdbc:h2:mem:batch-consumption",
+    "delivery.topic.order-confirmed=batch-consumption-test",
+    "delivery.consumer.mode=batch"})
+@EmbeddedKafka(partitions = 3, topics = "batch-consumption-test")
+class BatchConsumptionKafkaTest {
+
+  private static final String TOPIC = "batch-consumption-test";
+
+  @Autowired
+  private EmbeddedKafkaBroker broker;
+
+  @Autowired
+  private JdbcTemplate jdbc;
+
+  @SpyBean
+  private DeliveryService deliveryService;
+
+  @Test
+  void persistsEachPolledBatchOnceAndSkipsRedeliveredEvents() throws Exception {
+    List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    doAnswer(invocation -> {
+      batchSizes.add(invocation.<List<OrderConfirmedIntegrationEvent>>getArgument(0).size());
+      return invocation.callRealMethod();
+    }).when(deliveryService).createDeliveries(anyList());
+
+    try (Producer<String, String> producer = producer()) {
+      for (int i = 0; i < 150; i++) {
+        producer.send(confirmed("N" + i));
+      }
+      producer.flush();
+      await().atMost(Duration.ofSeconds(30)).until(() -> count("delivery") == 150);
+
+      for (int i = 0; i < 50; i++) { // mismos event-id: el filtro los descarta como duplicados
+        producer.send(confirmed("N" + i));
+      }
+      ProducerRecord<String, String> other = new ProducerRecord<>(TOPIC, "x", "not json");
+      other.headers().add(EventHeaders.EVENT_TYPE, "SomethingElse".getBytes(StandardCharsets.UTF_8));
+      producer.send(other).get();
+    }
+
+    // los 201 records confirmados: los duplicados y el otro tipo ya pasaron por el filtro
+    await().atMost(Duration.ofSeconds(30)).until(() -> committed() == 201);
+    assertThat(count("delivery")).isEqualTo(150);
+    assertThat(count("processed_event")).isEqualTo(150);
+    assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(150);
+    assertThat(batchSizes).anySatisfy(size -> assertThat(size).isGreaterThan(1));
+  }
+
+  private long committed() throws Exception {
+    long total = 0;
+    for (int partition = 0; partition < 3; partition++) {
+      OffsetAndMetadata offset = KafkaTestUtils.getCurrentOffset(broker.getBrokersAsString(), "delivery-service",
+          TOPIC, partition);
+      total += offset == null ? 0 : offset.offset();
+    }
+    return total;
+  }
+
+  private long count(String table) {
+    return jdbc.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+  }
+
+  private Producer<String, String> producer() {
+    Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+    props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+    props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+    return new KafkaProducer<>(props);
+  }
+
+  private static ProducerRecord<String, String> confirmed(String orderNumber) {
+    ProducerRecord<String, String> record = new ProducerRecord<>(TOPIC, orderNumber, "{\"orderNumber\":\""
+        + orderNumber + "\",\"eventType\":\"OrderConfirmed\",\"confirmedAt\":\"2024-01-01T10:00:00\"}");
+    record.headers().add(EventHeaders.EVENT_TYPE, OrderConfirmedConsumer.EVENT_TYPE.getBytes(StandardCharsets.UTF_8));
+    record.headers().add(EventHeaders.EVENT_ID, ("id-" + orderNumber).getBytes(StandardCharsets.UTF_8));
+    return record;
+  }
+}
@@ -0,0 +1,82 @@
+package com.example.delivery.infrastructure.in.messaging;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyOrderedProcessorTest {
+
+  private final KeyOrderedProcessor processor = new KeyOrderedProcessor(4);
+
+  @AfterEach
+  void shutdown() {
+    processor.shutdown();
+  }
+
+  @Test
+  void returnsMinusOneWhenEveryRecordCompletes() {
+    List<ConsumerRecord<String, byte[]>> records = records("A", "B", "A", "C");
+    List<Long> handled = Collections.synchronizedList(new ArrayList<>());
+
+    assertThat(processor.process(records, record -> handled.add(record.offset()))).isEqualTo(-1);
+    assertThat(handled).containsExactlyInAnyOrder(0L, 1L, 2L, 3L);
+  }
+
+  @Test
+  void returnsTheLowestFailedIndexAcrossKeys() {
+    // A falla en 4, B en 3: el lote se rehace desde 3
+    List<ConsumerRecord<String, byte[]>> records = records("A", "B", "C", "B", "A", "C");
+
+    int failed = processor.process(records, record -> {
+      if (record.offset() == 3 || record.offset() == 4) {
+        throw new IllegalStateException("boom " + record.offset());
+      }
+    });
+
+    assertThat(failed).isEqualTo(3);
+  }
+
+  @Test
+  void stopsAKeyAfterItsFailureButKeepsOtherKeysGoing() {
+    List<ConsumerRecord<String, byte[]>> records = records("A", "A", "B", "A", "B");
+    List<Long> handled = Collections.synchronizedList(new ArrayList<>());
+
+    int failed = processor.process(records, record -> {
+      if (record.offset() == 1) {
+        throw new IllegalStateException("boom");
+      }
+      handled.add(record.offset());
+    });
+
+    assertThat(failed).isEqualTo(1);
+    assertThat(handled).containsExactlyInAnyOrder(0L, 2L, 4L); // 3 (clave A) no corre después de 1
+  }
+
+  @Test
+  void keepsLogOrderWithinAKey() {
+    List<ConsumerRecord<String, byte[]>> records = records("A", "B", "A", "B", "A", "A");
+    List<Long> forA = Collections.synchronizedList(new ArrayList<>());
+
+    processor.process(records, record -> {
+      if ("A".equals(record.key())) {
+        forA.add(record.offset());
+      }
+    });
+
+    assertThat(forA).containsExactly(0L, 2L, 4L, 5L);
+  }
+
+  private static List<ConsumerRecord<String, byte[]>> records(String... keys) {
+    List<ConsumerRecord<String, byte[]>> records = new ArrayList<>(keys.length);
+    for (int offset = 0; offset < keys.length; offset++) {
+      records.add(new ConsumerRecord<>("orders", 0, offset, keys[offset], new byte[0]));
+    }
+    return records;
+  }
+}
@@ -0,0 +1,136 @@
+package com.example.delivery.infrastructure.in.messaging;
+
+import com.example.delivery.DeliveryApplication;
+import com.example.delivery.application.event.OrderConfirmedIntegrationEvent;
+import com.example.delivery.application.service.DeliveryService;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Modo parallel contra un broker embebido: offsets reales del grupo después de lotes filtrados.
+ */
+@SpringBootTest(classes = DeliveryApplication.class, properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "spring.kafka.consumer.auto-offset-reset=earliest",
+    "spring.datasource.url=jdbc:h2:mem:order-confirmed-consumer",
+    "delivery.topic.order-confirmed=order-confirmed-consumer-test",
+    "delivery.consumer.mode=parallel",
+    "delivery.consumer.retry-backoff=100ms"})
+@EmbeddedKafka(partitions = 1, topics = "order-confirmed-consumer-test")
+class OrderConfirmedConsumerKafkaTest {
+
+  private static final String TOPIC = "order-confirmed-consumer-test";
+  private static final String GROUP = "delivery-service";
+
+  @Autowired
+  private EmbeddedKafkaBroker broker;
+
+  @SpyBean
+  private DeliveryService deliveryService;
+
+  @SpyBean
+  private RetryTopics retryTopics;
+
+  @Test
+  void commitsABatchTheFilterLeftEmpty() throws Exception {
+    long end;
+    try (Producer<String, String> producer = producer()) {
+      for (int i = 0; i < 3; i++) {
+        producer.send(record("C" + i, "OrderCancelledIntegrationEvent", "{}"));
+      }
+      end = producer.send(record("C3", "OrderCancelledIntegrationEvent", "{}")).get().offset() + 1;
+    }
+
+    await().atMost(Duration.ofSeconds(30)).untilAsserted(() ->
+        assertThat(committed()).isGreaterThanOrEqualTo(end));
+  }
+
+  @Test
+  void replaysFromTheFailedRecordWhenFilteredRecordsCameBeforeIt() throws Exception {
+    List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+    AtomicBoolean failR1 = new AtomicBoolean(true);
+    doAnswer(invocation -> {
+      List<OrderConfirmedIntegrationEvent> events = invocation.getArgument(0);
+      for (OrderConfirmedIntegrationEvent event : events) {
+        if (event.getOrderNumber().equals("R1") && failR1.get()) {
+          throw new IllegalStateException("boom R1");
+        }
+        delivered.add(event.getOrderNumber());
+      }
+      return null;
+    }).when(deliveryService).createDeliveries(anyList());
+    // el reenvío de R1 a reintento falla una vez: el lote se reposiciona en vez de confirmarse
+    doAnswer(invocation -> {
+      List<?> failures = invocation.getArgument(0);
+      if (!failures.isEmpty() && failR1.getAndSet(false)) {
+        throw new IllegalStateException("broker down");
+      }
+      return invocation.callRealMethod();
+    }).when(retryTopics).forward(any());
+
+    long end;
+    try (Producer<String, String> producer = producer()) {
+      producer.send(confirmed("R0"));
+      producer.send(record("X0", "OrderCancelledIntegrationEvent", "{}"));
+      producer.send(record("X1", "OrderCancelledIntegrationEvent", "{}"));
+      producer.send(confirmed("R1"));
+      end = producer.send(confirmed("R2")).get().offset() + 1;
+    }
+
+    await().atMost(Duration.ofSeconds(30)).untilAsserted(() -> {
+      assertThat(committed()).isGreaterThanOrEqualTo(end);
+      assertThat(delivered).contains("R0", "R1", "R2");
+    });
+    assertThat(failR1).isFalse();
+    assertThat(delivered).containsOnlyOnce("R0", "R1");
+  }
+
+  private long committed() throws Exception {
+    OffsetAndMetadata offset = KafkaTestUtils.getCurrentOffset(broker.getBrokersAsString(), GROUP, TOPIC, 0);
+    return offset == null ? 0 : offset.offset();
+  }
+
+  private Producer<String, String> producer() {
+    Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+    props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+    props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+    return new KafkaProducer<>(props);
+  }
+
+  private static ProducerRecord<String, String> confirmed(String orderNumber) {
+    return record(orderNumber, OrderConfirmedConsumer.EVENT_TYPE, "{\"orderNumber\":\"" + orderNumber
+        + "\",\"eventType\":\"OrderConfirmed\",\"confirmedAt\":\"2024-01-01T10:00:00\"}");
+  }
+
+  private static ProducerRecord<String, String> record(String key, String eventType, String value) {
+    ProducerRecord<String, String> record = new ProducerRecord<>(TOPIC, key, value);
+    record.headers().add(EventHeaders.EVENT_TYPE, eventType.getBytes(StandardCharsets.UTF_8));
+    record.headers().add(EventHeaders.EVENT_ID, ("id-" + key).getBytes(StandardCharsets.UTF_8));
+    return record;
+  }
+}
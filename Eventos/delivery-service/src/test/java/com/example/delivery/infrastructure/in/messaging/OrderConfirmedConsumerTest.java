@@ -0,0 +1,99 @@
+package com.example.delivery.infrastructure.in.messaging;
+
+import com.example.delivery.application.service.DeliveryService;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+/** Modo parallel: un record que no se pudo ni reenviar reposiciona por offset, no por índice. */
+class OrderConfirmedConsumerTest {
+
+  private static final TopicPartition P0 = new TopicPartition("orders", 0);
+  private static final TopicPartition P1 = new TopicPartition("orders", 1);
+
+  private final IntegrationEventDispatcher dispatcher = mock(IntegrationEventDispatcher.class);
+  private final RetryTopics retryTopics = mock(RetryTopics.class);
+  private final KeyOrderedProcessor keyOrderedProcessor = new KeyOrderedProcessor(4);
+  private final OrderConfirmedConsumer consumer = new OrderConfirmedConsumer(dispatcher,
+      mock(ProcessedEventIds.class), mock(DeliveryService.class), keyOrderedProcessor, retryTopics,
+      "parallel", Duration.ZERO);
+
+  @SuppressWarnings("unchecked")
+  private final Consumer<String, byte[]> kafkaConsumer = mock(Consumer.class);
+  private final Acknowledgment ack = mock(Acknowledgment.class);
+
+  @AfterEach
+  void shutdown() {
+    keyOrderedProcessor.shutdown();
+  }
+
+  @Test
+  void replaysFromTheFailedOffsetWhenFilteredRecordsCameBeforeIt() {
+    // poll: p0@0..5 y p1@7..8; el filtro dejó p0@2, p0@4, p0@5, p1@7, p1@8 (p0@0, @1, @3 descartados)
+    ConsumerRecord<String, byte[]> failing = record(0, 5, "N5");
+    List<ConsumerRecord<String, byte[]>> filtered = List.of(
+        record(0, 2, "N2"), record(0, 4, "N4"), failing, record(1, 7, "N7"), record(1, 8, "N8"));
+    failOnDispatch(failing);
+
+    consumer.onMessages(filtered, ack, kafkaConsumer);
+
+    verify(ack, never()).acknowledge();
+    var order = inOrder(kafkaConsumer);
+    order.verify(kafkaConsumer).commitSync(Map.of(
+        P0, new OffsetAndMetadata(5),   // p0@2 y p0@4 completos; los descartados antes de 5 también
+        P1, new OffsetAndMetadata(7))); // p1 está después del fallido en el lote: se rehace entera
+    order.verify(kafkaConsumer).seek(P0, 5);
+    order.verify(kafkaConsumer).seek(P1, 7);
+    verifyNoMoreInteractions(kafkaConsumer);
+  }
+
+  @Test
+  void commitsWholePartitionsThatCompletedBeforeTheFailure() {
+    ConsumerRecord<String, byte[]> failing = record(1, 3, "N3");
+    List<ConsumerRecord<String, byte[]>> filtered = List.of(record(0, 10, "N10"), record(0, 12, "N12"), failing);
+    failOnDispatch(failing);
+
+    consumer.onMessages(filtered, ack, kafkaConsumer);
+
+    verify(kafkaConsumer).commitSync(Map.of(P0, new OffsetAndMetadata(13), P1, new OffsetAndMetadata(3)));
+    verify(kafkaConsumer).seek(P1, 3);
+    verify(kafkaConsumer, never()).seek(P0, 13);
+  }
+
+  @Test
+  void acknowledgesTheBatchWhenEveryRecordCompletes() {
+    consumer.onMessages(List.of(record(0, 1, "N1"), record(0, 2, "N2")), ack, kafkaConsumer);
+
+    verify(ack).acknowledge();
+    verifyNoMoreInteractions(kafkaConsumer);
+  }
+
+  /** El handler falla con ese record y además el reenvío a reintento falla: handle() propaga. */
+  private void failOnDispatch(ConsumerRecord<String, byte[]> failing) {
+    doThrow(new IllegalStateException("boom")).when(dispatcher)
+        .dispatch(argThat(records -> records != null && records.contains(failing)), any());
+    doThrow(new IllegalStateException("broker down")).when(retryTopics)
+        .forward(argThat(failures -> failures != null && !failures.isEmpty()));
+  }
+
+  private static ConsumerRecord<String, byte[]> record(int partition, long offset, String key) {
+    return new ConsumerRecord<>("orders", partition, offset, key, new byte[0]);
+  }
+}
@@ -0,0 +1,131 @@
+package com.example.delivery.infrastructure.in.messaging;
+
+import com.example.delivery.DeliveryApplication;
+import com.example.delivery.application.event.OrderConfirmedIntegrationEvent;
+import com.example.delivery.application.service.DeliveryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Reintentos sin bloquear la partición: un record que sigue fallando pasa por retry-0 y retry-1
+ * y termina en el DLT, un payload ilegible va directo, y el replay los devuelve al tópico principal.
+ */
+@SpringBootTest(classes = DeliveryApplication.class, properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "spring.kafka.consumer.auto-offset-reset=earliest",
+    "spring.datasource.url=jdbc:h2:mem:retry",
+    "delivery.topic.order-confirmed=retry-test",
+    "delivery.retry.delays=1s,2s"})
+@EmbeddedKafka(partitions = 2, topics = "retry-test")
+class RetryKafkaTest {
+
+  private static final String TOPIC = "retry-test";
+
+  @Autowired
+  private EmbeddedKafkaBroker broker;
+
+  @Autowired
+  private DeadLetterTopic deadLetterTopic;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @SpyBean
+  private DeliveryService deliveryService;
+
+  @Test
+  void retriesThenDeadLettersAndReplays() throws Exception {
+    List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+    AtomicBoolean failN7 = new AtomicBoolean(true);
+    doAnswer(invocation -> {
+      List<OrderConfirmedIntegrationEvent> events = invocation.getArgument(0);
+      for (OrderConfirmedIntegrationEvent event : events) {
+        if (event.getOrderNumber().equals("N7") && failN7.get()) {
+          throw new IllegalStateException("boom N7");
+        }
+      }
+      events.forEach(event -> delivered.add(event.getOrderNumber()));
+      return null;
+    }).when(deliveryService).createDeliveries(anyList());
+
+    try (Producer<String, String> producer = producer()) {
+      for (int i = 0; i < 10; i++) {
+        producer.send(confirmed("N" + i));
+      }
+      ProducerRecord<String, String> unreadable = new ProducerRecord<>(TOPIC, "B1", "{not json");
+      unreadable.headers().add(EventHeaders.EVENT_ID, "id-B1".getBytes(StandardCharsets.UTF_8));
+      producer.send(unreadable);
+    }
+
+    // el resto del lote no espera a N7
+    await().atMost(Duration.ofSeconds(30)).untilAsserted(() ->
+        assertThat(delivered).containsExactlyInAnyOrder("N0", "N1", "N2", "N3", "N4", "N5", "N6", "N8", "N9"));
+    await().atMost(Duration.ofSeconds(30)).untilAsserted(() -> {
+      assertThat(retried("retry-test-dlt", "processing")).isEqualTo(1);
+      deadLetterTopic.refreshDepth();
+      assertThat(depth()).isEqualTo(2);
+    });
+    assertThat(retried("retry-test-retry-0", "processing")).isEqualTo(1);
+    assertThat(retried("retry-test-retry-1", "processing")).isEqualTo(1);
+    assertThat(retried("retry-test-dlt", "unreadable")).isEqualTo(1);
+    assertThat(delivered).doesNotContain("N7");
+
+    failN7.set(false);
+    assertThat(deadLetterTopic.replay(100)).isEqualTo(2);
+
+    await().atMost(Duration.ofSeconds(30)).untilAsserted(() -> assertThat(delivered).contains("N7"));
+    // B1 sigue ilegible: vuelve a morir y es lo único pendiente en el DLT
+    await().atMost(Duration.ofSeconds(30)).untilAsserted(() -> {
+      deadLetterTopic.refreshDepth();
+      assertThat(depth()).isEqualTo(1);
+    });
+    assertThat(delivered).containsOnlyOnce("N7");
+    assertThat(meterRegistry.get("delivery.dlt.replayed").counter().count()).isEqualTo(2);
+  }
+
+  private double retried(String topic, String reason) {
+    return meterRegistry.counter("delivery.retry.records", "topic", topic, "reason", reason).count();
+  }
+
+  private double depth() {
+    return meterRegistry.get("delivery.dlt.depth").gauge().value();
+  }
+
+  private Producer<String, String> producer() {
+    Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+    props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+    props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+    return new KafkaProducer<>(props);
+  }
+
+  private static ProducerRecord<String, String> confirmed(String orderNumber) {
+    ProducerRecord<String, String> record = new ProducerRecord<>(TOPIC, orderNumber, "{\"orderNumber\":\""
+        + orderNumber + "\",\"eventType\":\"OrderConfirmed\",\"confirmedAt\":\"2024-01-01T10:00:00\"}");
+    record.headers().add(EventHeaders.EVENT_ID, ("id-" + orderNumber).getBytes(StandardCharsets.UTF_8));
+    return record;
+  }
+}
@@ -0,0 +1,130 @@
+package com.example.delivery.infrastructure.in.messaging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class RetryTopicsTest {
+
+  @SuppressWarnings("unchecked")
+  private final KafkaTemplate<String, byte[]> kafkaTemplate = mock(KafkaTemplate.class);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final RetryTopics retryTopics = new RetryTopics(kafkaTemplate, meterRegistry, "orders",
+      List.of(Duration.ofSeconds(10), Duration.ofMinutes(1)), Duration.ofSeconds(1));
+
+  @Test
+  void sendsAFirstFailureToTheFirstRetryTopic() {
+    when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+    ConsumerRecord<String, byte[]> record = record("orders", "N1");
+    record.headers().add(EventHeaders.EVENT_ID, utf8("id-N1"));
+
+    long before = System.currentTimeMillis();
+    retryTopics.forward(List.of(RetryTopics.Failure.processing(record, new IllegalStateException("boom"))));
+
+    ProducerRecord<String, byte[]> sent = sent();
+    assertThat(sent.topic()).isEqualTo("orders-retry-0");
+    assertThat(sent.key()).isEqualTo("N1");
+    assertThat(header(sent, EventHeaders.EVENT_ID)).isEqualTo("id-N1");
+    assertThat(header(sent, RetryTopics.ORIGINAL_TOPIC)).isEqualTo("orders");
+    assertThat(header(sent, RetryTopics.ATTEMPT)).isEqualTo("1");
+    assertThat(header(sent, RetryTopics.EXCEPTION)).isEqualTo("java.lang.IllegalStateException: boom");
+    assertThat(Long.parseLong(header(sent, RetryTopics.DUE_AT))).isGreaterThanOrEqualTo(before + 10_000);
+    assertThat(meterRegistry.counter("delivery.retry.records", "topic", "orders-retry-0", "reason", "processing")
+        .count()).isEqualTo(1);
+  }
+
+  @Test
+  void movesARetriedRecordToTheNextLevelAndThenToTheDeadLetterTopic() {
+    when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+    ConsumerRecord<String, byte[]> retried = record("orders-retry-0", "N1");
+    retried.headers().add(RetryTopics.ORIGINAL_TOPIC, utf8("orders")).add(RetryTopics.ATTEMPT, utf8("1"))
+        .add(RetryTopics.DUE_AT, utf8("0"));
+
+    retryTopics.forward(List.of(RetryTopics.Failure.processing(retried, new IllegalStateException("again"))));
+    ProducerRecord<String, byte[]> second = sent();
+    assertThat(second.topic()).isEqualTo("orders-retry-1");
+    assertThat(header(second, RetryTopics.ATTEMPT)).isEqualTo("2");
+    assertThat(second.headers().headers(RetryTopics.ATTEMPT)).hasSize(1);
+
+    ConsumerRecord<String, byte[]> last = record("orders-retry-1", "N1");
+    last.headers().add(RetryTopics.ORIGINAL_TOPIC, utf8("orders")).add(RetryTopics.ATTEMPT, utf8("2"));
+    retryTopics.forward(List.of(RetryTopics.Failure.processing(last, new IllegalStateException("still"))));
+
+    ArgumentCaptor<ProducerRecord<String, byte[]>> sent = captor();
+    verify(kafkaTemplate, times(2)).send(sent.capture());
+    ProducerRecord<String, byte[]> dead = sent.getAllValues().get(1);
+    assertThat(dead.topic()).isEqualTo("orders-dlt");
+    assertThat(header(dead, RetryTopics.ORIGINAL_TOPIC)).isEqualTo("orders");
+    assertThat(header(dead, RetryTopics.ATTEMPT)).isEqualTo("3");
+    assertThat(dead.headers().lastHeader(RetryTopics.DUE_AT)).isNull();
+  }
+
+  @Test
+  void sendsUnreadableRecordsStraightToTheDeadLetterTopic() {
+    when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+    retryTopics.forward(List.of(RetryTopics.Failure.unreadable(record("orders", "B1"), new IllegalArgumentException("not json"))));
+
+    assertThat(sent().topic()).isEqualTo("orders-dlt");
+    assertThat(meterRegistry.counter("delivery.retry.records", "topic", "orders-dlt", "reason", "unreadable")
+        .count()).isEqualTo(1);
+  }
+
+  @Test
+  void failsWhenTheBrokerDoesNotAcceptTheForward() {
+    when(kafkaTemplate.send(any(ProducerRecord.class)))
+        .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+    assertThatThrownBy(() -> retryTopics.forward(List.of(
+        RetryTopics.Failure.processing(record("orders", "N1"), new IllegalStateException("boom")))))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("Could not forward 1 failed records");
+  }
+
+  @Test
+  void doesNothingWithoutFailures() {
+    retryTopics.forward(List.of());
+
+    verifyNoInteractions(kafkaTemplate);
+  }
+
+  private ProducerRecord<String, byte[]> sent() {
+    ArgumentCaptor<ProducerRecord<String, byte[]>> sent = captor();
+    verify(kafkaTemplate).send(sent.capture());
+    return sent.getValue();
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static ArgumentCaptor<ProducerRecord<String, byte[]>> captor() {
+    return (ArgumentCaptor) ArgumentCaptor.forClass(ProducerRecord.class);
+  }
+
+  private static String header(ProducerRecord<String, byte[]> record, String key) {
+    return EventHeaders.read(record.headers(), key);
+  }
+
+  private static ConsumerRecord<String, byte[]> record(String topic, String key) {
+    return new ConsumerRecord<>(topic, 0, 0, key, utf8("{}"));
+  }
+
+  private static byte[] utf8(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,97 @@
+package com.example.delivery.infrastructure.in.messaging;
+
+import com.example.delivery.DeliveryApplication;
+import com.example.delivery.application.service.RouteSequencingService;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * De la confirmación consumida a la ruta secuenciada: entregas agrupadas por código postal
+ * (cerradas al llenarse o por edad) y después el orden de paradas de cada ruta.
+ */
+@SpringBootTest(classes = DeliveryApplication.class, properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "spring.kafka.consumer.auto-offset-reset=earliest",
+    "spring.datasource.url=jdbc:h2:mem:routing",
+    "delivery.topic.order-confirmed=routing-test",
+    "delivery.routing.max-stops=10",
+    "delivery.routing.max-age=2s",
+    "delivery.routing.sweep-ms=500"})
+@EmbeddedKafka(partitions = 3, topics = "routing-test")
+class RoutingKafkaTest {
+
+  @Autowired
+  private EmbeddedKafkaBroker broker;
+
+  @Autowired
+  private JdbcTemplate jdbc;
+
+  @Autowired
+  private RouteSequencingService sequencingService;
+
+  @Test
+  void binsConfirmedOrdersIntoRoutesAndSequencesTheirStops() {
+    for (int c = 0; c < 3; c++) {
+      jdbc.update("INSERT INTO customer_address (customer_id, street, city, postal_code, latitude, longitude) "
+          + "VALUES (?, ?, ?, ?, ?, ?)", "C" + c, "Street " + c, "City", "100" + c, -33.4 + c * 0.01, -70.6);
+    }
+    Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+    props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+    props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+    try (Producer<String, String> producer = new KafkaProducer<>(props)) {
+      for (int i = 0; i < 120; i++) { // N0..N19 llegan dos veces; C3 no tiene dirección
+        String orderNumber = "N" + (i % 100);
+        producer.send(new ProducerRecord<>("routing-test", orderNumber, "{\"orderNumber\":\"" + orderNumber
+            + "\",\"customerId\":\"C" + (i % 4) + "\",\"eventType\":\"OrderConfirmed\","
+            + "\"confirmedAt\":\"2024-01-01T10:00:00\"}"));
+      }
+    }
+
+    await().atMost(Duration.ofSeconds(30)).untilAsserted(() -> {
+      assertThat(count("SELECT COUNT(*) FROM delivery")).isEqualTo(100);
+      assertThat(count("SELECT COUNT(*) FROM delivery WHERE route_id IS NULL")).isZero();
+    });
+    assertThat(count("SELECT SUM(stops) FROM delivery_route")).isEqualTo(100);
+    assertThat(count("SELECT MAX(stops) FROM delivery_route")).isLessThanOrEqualTo(10);
+    assertThat(count("SELECT COUNT(*) FROM delivery_route r WHERE stops <> "
+        + "(SELECT COUNT(*) FROM delivery d WHERE d.route_id = r.route_id)")).isZero();
+    assertThat(jdbc.queryForList("SELECT DISTINCT postal_code FROM delivery_route", String.class))
+        .containsExactlyInAnyOrder("1000", "1001", "1002", "unknown");
+
+    RouteSequencingService.Summary summary = sequencingService.sequencePendingRoutes();
+
+    assertThat(summary.stops()).isEqualTo(100);
+    assertThat(summary.routes()).isEqualTo((int) count("SELECT COUNT(*) FROM delivery_route"));
+    assertThat(count("SELECT COUNT(*) FROM delivery_route WHERE sequenced_at IS NULL OR distance_km IS NULL")).isZero();
+    List<Map<String, Object>> perRoute = jdbc.queryForList("SELECT route_id, COUNT(DISTINCT stop_sequence) AS distinct_stops, "
+        + "MIN(stop_sequence) AS first_stop, MAX(stop_sequence) AS last_stop, COUNT(*) AS stops "
+        + "FROM delivery GROUP BY route_id");
+    assertThat(perRoute).allSatisfy(route -> {
+      assertThat(((Number) route.get("FIRST_STOP")).intValue()).isEqualTo(1);
+      assertThat(((Number) route.get("LAST_STOP")).longValue()).isEqualTo(((Number) route.get("STOPS")).longValue());
+      assertThat(((Number) route.get("DISTINCT_STOPS")).longValue()).isEqualTo(((Number) route.get("STOPS")).longValue());
+    });
+    assertThat(sequencingService.sequencePendingRoutes().routes()).isZero();
+  }
+
+  private long count(String sql) {
+    return jdbc.queryForObject(sql, Long.class);
+  }
+}
@@ -0,0 +1,30 @@
+package com.example.hexagonalorders.application.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.util.function.Function;
+
+/**
+ * Ruta de un evento de integración: versión del esquema del payload, tópico ya resuelto,
+ * extractor de la clave del record (se guarda en el outbox al escribir), serializador
+ * precompilado y si admite publicación directa desde memoria (fast path del outbox).
+ */
+public record IntegrationEventRoute(
+        Class<?> eventClass,
+        String eventType,
+        int schemaVersion,
+        String aggregateType,
+        String topic,
+        Function<Object, String> keyExtractor,
+        ObjectWriter writer,
+        boolean directPublish
+) {
+    public String key(Object event) {
+        return keyExtractor.apply(event);
+    }
+
+    public String serialize(Object event) throws JsonProcessingException {
+        return writer.writeValueAsString(event);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.hexagonalorders.application.event;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tabla de ruteo de eventos de integración, armada una sola vez al arrancar.
+ * Un evento sin ruta no es de integración: no se escribe en el outbox.
+ */
+public final class IntegrationEventRoutes {
+
+    private final Map<Class<?>, IntegrationEventRoute> byClass = new HashMap<>();
+    private final Map<String, IntegrationEventRoute> byEventType = new HashMap<>();
+
+    public IntegrationEventRoutes(Collection<IntegrationEventRoute> routes) {
+        for (IntegrationEventRoute route : routes) {
+            if (byClass.put(route.eventClass(), route) != null
+                    || byEventType.put(route.eventType(), route) != null) {
+                throw new IllegalArgumentException("Duplicate integration route for " + route.eventType());
+            }
+        }
+    }
+
+    public Collection<IntegrationEventRoute> all() {
+        return byEventType.values();
+    }
+
+    /** @return la ruta del evento, o null si no se publica */
+    public IntegrationEventRoute forEvent(Class<?> eventClass) {
+        return byClass.get(eventClass);
+    }
+
+    /** @return la ruta de una fila del outbox, o null si su tipo ya no tiene ruta */
+    public IntegrationEventRoute forEventType(String eventType) {
+        return byEventType.get(eventType);
+    }
+}
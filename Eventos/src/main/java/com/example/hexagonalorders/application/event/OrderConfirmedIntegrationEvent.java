@@ -6,17 +6,20 @@ import java.time.LocalDateTime;
 
 public class OrderConfirmedIntegrationEvent {
     private final String orderNumber;
+    private final String customerId;
     private final String eventType;
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private final LocalDateTime confirmedAt;
 
-    public OrderConfirmedIntegrationEvent(OrderNumber orderNumber) {
+    public OrderConfirmedIntegrationEvent(OrderNumber orderNumber, String customerId) {
         this.orderNumber = orderNumber.value();
+        this.customerId = customerId;
         this.eventType = "OrderConfirmed";
         this.confirmedAt = LocalDateTime.now();
     }
 
     public String getOrderNumber() { return orderNumber; }
+    public String getCustomerId() { return customerId; }
     public String getEventType() { return eventType; }
     public LocalDateTime getConfirmedAt() { return confirmedAt; }
 }
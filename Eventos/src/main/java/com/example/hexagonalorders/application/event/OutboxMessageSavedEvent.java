@@ -0,0 +1,10 @@
+package com.example.hexagonalorders.application.event;
+
+import com.example.hexagonalorders.domain.model.OutboxMessage;
+
+/**
+ * Evento interno publicado al escribir una fila en el outbox.
+ * Se escucha después del commit para despertar al dispatcher sin esperar al polling.
+ */
+public record OutboxMessageSavedEvent(OutboxMessage message) {
+}
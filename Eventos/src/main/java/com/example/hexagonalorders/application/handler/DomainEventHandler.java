@@ -1,13 +1,18 @@
 package com.example.hexagonalorders.application.handler;
 
+import com.example.hexagonalorders.application.event.IntegrationEventRoute;
+import com.example.hexagonalorders.application.event.IntegrationEventRoutes;
 import com.example.hexagonalorders.application.event.OrderConfirmedIntegrationEvent;
+import com.example.hexagonalorders.application.event.OutboxMessageSavedEvent;
 import com.example.hexagonalorders.domain.event.DomainEvent;
 import com.example.hexagonalorders.domain.event.OrderConfirmedEvent;
 import com.example.hexagonalorders.domain.model.OutboxMessage;
+import com.example.hexagonalorders.domain.model.TimeOrderedIds;
 import com.example.hexagonalorders.domain.port.out.OutboxRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
@@ -19,14 +24,15 @@ import java.util.UUID;
 public class DomainEventHandler {
 
     private final OutboxRepository outboxRepository;
-    private final ObjectMapper objectMapper;
+    private final IntegrationEventRoutes routes;
+    private final ApplicationEventPublisher eventPublisher;
 
     @EventListener
     public void handleOrderConfirmed(OrderConfirmedEvent event) {
         try {
             OrderConfirmedIntegrationEvent integration =
-                    new OrderConfirmedIntegrationEvent(event.getOrderNumber());
-            persistToOutbox(integration, "Order", event.getOrderNumber().value());
+                    new OrderConfirmedIntegrationEvent(event.getOrderNumber(), event.getCustomerId());
+            persistToOutbox(integration, event.getOrderNumber().value());
         } catch (Exception e) {
             throw new RuntimeException("Failed to process order confirmation integration event", e);
         }
@@ -37,15 +43,29 @@ public class DomainEventHandler {
         log.debug("Domain event received (no integration mapping): {}", event.getClass().getSimpleName());
     }
 
-    private void persistToOutbox(Object event, String aggregateType, String aggregateId) {
+    private void persistToOutbox(Object event, String aggregateId) {
+        IntegrationEventRoute route = routes.forEvent(event.getClass());
+        if (route == null) {
+            log.debug("No integration route for {}, not written to outbox", event.getClass().getSimpleName());
+            return;
+        }
         try {
-            String payload = objectMapper.writeValueAsString(event);
-            String eventType = event.getClass().getSimpleName();
-            UUID uuid = UUID.nameUUIDFromBytes(aggregateId.getBytes());
-            OutboxMessage msg = OutboxMessage.createPendingMessage(aggregateType, uuid, eventType, payload);
+            String payload = route.serialize(event);
+            // números UUIDv7 compactos se decodifican; los anteriores siguen con el hash de siempre
+            UUID uuid = TimeOrderedIds.decode(aggregateId)
+                    .orElseGet(() -> UUID.nameUUIDFromBytes(aggregateId.getBytes()));
+            OutboxMessage msg = OutboxMessage.createPendingMessage(
+                    route.aggregateType(), uuid, route.eventType(), route.key(event), currentTraceId(), payload);
             outboxRepository.save(msg);
+            eventPublisher.publishEvent(new OutboxMessageSavedEvent(msg)); // despierta al dispatcher tras el commit
         } catch (Exception e) {
             throw new RuntimeException("Failed to persist event to outbox", e);
         }
     }
+
+    /** Trace id del request en curso (MDC "traceId" si hay tracing), o uno nuevo para este evento. */
+    private static String currentTraceId() {
+        String traceId = MDC.get("traceId");
+        return traceId != null ? traceId : UUID.randomUUID().toString().replace("-", "");
+    }
 }
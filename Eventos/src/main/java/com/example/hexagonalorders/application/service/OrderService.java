@@ -2,14 +2,11 @@ package com.example.hexagonalorders.application.service;
 
 import com.example.hexagonalorders.domain.event.DomainEvent;
 import com.example.hexagonalorders.domain.model.Order;
-import com.example.hexagonalorders.domain.model.OutboxMessage;
 import com.example.hexagonalorders.domain.model.valueobject.OrderNumber;
 import com.example.hexagonalorders.domain.port.in.OrderUseCase;
 import com.example.hexagonalorders.domain.port.out.OrderNumberGenerator;
 import com.example.hexagonalorders.domain.port.out.OrderRepository;
-import com.example.hexagonalorders.domain.port.out.OutboxRepository;
 import com.example.hexagonalorders.domain.service.OrderValidationService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
@@ -17,8 +14,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -28,24 +29,11 @@ public class OrderService implements OrderUseCase {
     private final OrderNumberGenerator orderNumberGenerator;
     private final OrderValidationService orderValidationService;
     private final ApplicationEventPublisher eventPublisher;
-    private final OutboxRepository outboxRepository;
-    private final ObjectMapper objectMapper;
 
     @Override
     @Transactional
     public Order createOrder(Order order) {
-        // Validar
-        orderValidationService.validateOrder(order);
-
-        // Generar número de orden
-        OrderNumber orderNumber = orderNumberGenerator.generate();
-        Order orderWithNumber = new Order(
-                orderNumber,
-                order.getCustomerId(),
-                order.getOrderDate(),
-                order.getItems(),
-                order.getStatus()
-        );
+        Order orderWithNumber = numbered(order);
 
         // ---- CAPTURAR eventos ANTES de guardar ----
         List<DomainEvent> events = new ArrayList<>(orderWithNumber.getDomainEvents());
@@ -53,10 +41,9 @@ public class OrderService implements OrderUseCase {
         // Guardar la orden
         Order savedOrder = orderRepository.save(orderWithNumber);
 
-        // Publicar eventos de dominio y persistir en outbox (desde la lista capturada)
+        // Publicar eventos de dominio (desde la lista capturada); DomainEventHandler escribe en el outbox los de integración
         for (DomainEvent event : events) {
             eventPublisher.publishEvent(event); // Publicación interna (opcional)
-          //  persistToOutbox(event, "Order", orderNumber.value());
         }
 
         // Limpiar eventos del aggregate (original)
@@ -65,6 +52,40 @@ public class OrderService implements OrderUseCase {
         return savedOrder;
     }
 
+    @Override
+    @Transactional
+    public List<Order> createOrders(List<Order> orders) {
+        List<Order> numbered = new ArrayList<>(orders.size());
+        List<DomainEvent> events = new ArrayList<>();
+        for (Order order : orders) {
+            Order orderWithNumber = numbered(order);
+            events.addAll(orderWithNumber.getDomainEvents());
+            numbered.add(orderWithNumber);
+        }
+
+        // Un solo saveAll: los inserts del lote salen en batch JDBC
+        List<Order> savedOrders = orderRepository.saveAll(numbered);
+
+        for (DomainEvent event : events) {
+            eventPublisher.publishEvent(event);
+        }
+        numbered.forEach(Order::clearDomainEvents);
+        return savedOrders;
+    }
+
+    /** Valida la orden y devuelve una copia con número de orden generado. */
+    private Order numbered(Order order) {
+        orderValidationService.validateOrder(order);
+        OrderNumber orderNumber = orderNumberGenerator.generate();
+        return new Order(
+                orderNumber,
+                order.getCustomerId(),
+                order.getOrderDate(),
+                order.getItems(),
+                order.getStatus()
+        );
+    }
+
     @Override
     public Optional<Order> getOrder(OrderNumber orderNumber) {
         return orderRepository.findByOrderNumber(orderNumber);
@@ -107,10 +128,9 @@ public class OrderService implements OrderUseCase {
         // 3) Guardar cambios
         Order savedOrder = orderRepository.save(order);
 
-        // 4) Publicar y persistir en Outbox todos los DomainEvents generados (desde la lista capturada)
+        // 4) Publicar los DomainEvents generados (desde la lista capturada); DomainEventHandler los persiste en el outbox
         for (DomainEvent event : events) {
             eventPublisher.publishEvent(event); // Publicación interna (opcional)
-           // persistToOutbox(event, "Order", orderNumber.value());
         }
 
         // 5) Limpiar eventos del aggregate
@@ -119,22 +139,36 @@ public class OrderService implements OrderUseCase {
         return savedOrder;
     }
 
-    protected void persistToOutbox(DomainEvent event, String aggregateType, String aggregateId) {
-        try {
-            String payload = objectMapper.writeValueAsString(event);
-            String eventType = event.getClass().getSimpleName();
-            UUID uuid = UUID.nameUUIDFromBytes(aggregateId.getBytes());
-
-            OutboxMessage message = OutboxMessage.createPendingMessage(
-                    aggregateType,
-                    uuid,
-                    eventType,
-                    payload
-            );
-            outboxRepository.save(message);
-
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to persist event to outbox", e);
+    @Override
+    @Transactional
+    public List<Order> confirmOrders(List<OrderNumber> orderNumbers) {
+        Set<OrderNumber> requested = new LinkedHashSet<>(orderNumbers);
+        Map<OrderNumber, Order> found = orderRepository.findByOrderNumbers(requested).stream()
+                .collect(Collectors.toMap(Order::getOrderNumber, Function.identity()));
+        List<String> missing = requested.stream()
+                .filter(number -> !found.containsKey(number))
+                .map(OrderNumber::value)
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new RuntimeException("Orders not found: " + missing);
+        }
+
+        List<Order> orders = new ArrayList<>(requested.size());
+        List<DomainEvent> events = new ArrayList<>();
+        for (OrderNumber orderNumber : requested) {
+            Order order = found.get(orderNumber);
+            order.confirm(null); // IllegalStateException si no está PENDING: rollback del lote entero
+            events.addAll(order.getDomainEvents());
+            orders.add(order);
+        }
+
+        // Transiciones PENDING -> CONFIRMED en un solo UPDATE condicional
+        List<Order> savedOrders = orderRepository.saveAll(orders);
+
+        for (DomainEvent event : events) {
+            eventPublisher.publishEvent(event);
         }
+        orders.forEach(Order::clearDomainEvents);
+        return savedOrders;
     }
 }
@@ -9,11 +9,13 @@ public class OrderConfirmedEvent extends DomainEvent {
 
     private final Long orderId;
     private final OrderNumber orderNumber;
+    private final String customerId;
 
-    public OrderConfirmedEvent(Long orderId, OrderNumber orderNumber) {
+    public OrderConfirmedEvent(Long orderId, OrderNumber orderNumber, String customerId) {
         super(); // Inicializa datos comunes del DomainEvent (timestamp, id, etc.)
         this.orderId = orderId;
         this.orderNumber = orderNumber;
+        this.customerId = customerId;
     }
 
     public Long getOrderId() {
@@ -23,4 +25,8 @@ public class OrderConfirmedEvent extends DomainEvent {
     public OrderNumber getOrderNumber() {
         return orderNumber;
     }
+
+    public String getCustomerId() {
+        return customerId;
+    }
 }
@@ -26,6 +26,12 @@ public class Order {
 
     private final List<DomainEvent> domainEvents = new ArrayList<>();
 
+    // Cambios desde la carga (o el último save), para que la persistencia escriba solo eso.
+    // persistedStatus == null: la orden todavía no existe en el repositorio.
+    private OrderStatus persistedStatus;
+    private final List<OrderItem> addedItems = new ArrayList<>();
+    private final List<OrderItem> removedItems = new ArrayList<>();
+
     public Order(OrderNumber orderNumber,
                  String customerId,
                  LocalDateTime orderDate,
@@ -53,6 +59,32 @@ public class Order {
         domainEvents.add(new OrderCreatedEvent(null, orderNumber));
     }
 
+    private Order(OrderNumber orderNumber,
+                  String customerId,
+                  LocalDateTime orderDate,
+                  List<OrderItem> items,
+                  OrderStatus status,
+                  boolean persisted) {
+        this.orderNumber = orderNumber;
+        this.customerId = customerId;
+        this.orderDate = orderDate;
+        this.items = items;
+        this.status = status;
+        this.persistedStatus = persisted ? status : null;
+    }
+
+    /**
+     * Rebuilds an order already stored in a repository: no OrderCreatedEvent is raised and the
+     * current state is taken as the persisted one.
+     */
+    public static Order rehydrate(OrderNumber orderNumber,
+                                  String customerId,
+                                  LocalDateTime orderDate,
+                                  List<OrderItem> items,
+                                  OrderStatus status) {
+        return new Order(orderNumber, customerId, orderDate, items, status, true);
+    }
+
     public OrderNumber getOrderNumber() {
         return orderNumber;
     }
@@ -81,11 +113,36 @@ public class Order {
         domainEvents.clear();
     }
 
+    public boolean isPersisted() {
+        return persistedStatus != null;
+    }
+
+    /** Status as last read from or written to the repository; null if never persisted. */
+    public OrderStatus getPersistedStatus() {
+        return persistedStatus;
+    }
+
+    public List<OrderItem> getAddedItems() {
+        return Collections.unmodifiableList(addedItems);
+    }
+
+    public List<OrderItem> getRemovedItems() {
+        return Collections.unmodifiableList(removedItems);
+    }
+
+    /** Called by the repository once the current state is stored. */
+    public void markPersisted() {
+        persistedStatus = status;
+        addedItems.clear();
+        removedItems.clear();
+    }
+
     public void addItem(OrderItem item, Long orderId, Long itemId) {
         if (item == null) {
             throw new IllegalArgumentException("Order item cannot be null");
         }
         this.items.add(item);
+        addedItems.add(item);
         domainEvents.add(new OrderItemAddedEvent(
                 orderId,
                 itemId,
@@ -98,7 +155,9 @@ public class Order {
         if (item == null) {
             throw new IllegalArgumentException("Order item cannot be null");
         }
-        this.items.remove(item);
+        if (this.items.remove(item) && !addedItems.remove(item)) {
+            removedItems.add(item);
+        }
     }
 
     /**
@@ -110,6 +169,6 @@ public class Order {
             throw new IllegalStateException("Order cannot be confirmed unless it is in PENDING status.");
         }
         this.status = OrderStatus.CONFIRMED;
-        domainEvents.add(new OrderConfirmedEvent(orderId, this.orderNumber));
+        domainEvents.add(new OrderConfirmedEvent(orderId, this.orderNumber, this.customerId));
     }
 }
@@ -8,24 +8,36 @@ public record OutboxMessage(
     String aggregateType,
     UUID aggregateId,
     String eventType,
+    String messageKey,
+    String traceId,
     String payload,
     Status status,
     Instant createdAt,
-    Instant processedAt
+    Instant processedAt,
+    int attempts
 ) {
-    public static OutboxMessage createPendingMessage(String aggregateType, UUID aggregateId, String eventType, String payload) {
+    public static OutboxMessage createPendingMessage(String aggregateType, UUID aggregateId, String eventType,
+                                                     String messageKey, String traceId, String payload) {
         return new OutboxMessage(
-            UUID.randomUUID(),
+            TimeOrderedIds.newUuid(),
             aggregateType,
             aggregateId,
             eventType,
+            messageKey,
+            traceId,
             payload,
             Status.PENDING,
             Instant.now(),
-            null
+            null,
+            0
         );
     }
 
+    public OutboxMessage withPayload(String payload) {
+        return new OutboxMessage(id, aggregateType, aggregateId, eventType, messageKey, traceId, payload, status,
+                createdAt, processedAt, attempts);
+    }
+
     public enum Status {
         PENDING, PROCESSED, FAILED
     }
@@ -0,0 +1,91 @@
+package com.example.hexagonalorders.domain.model;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Identificadores ordenados por tiempo (UUIDv7, RFC 9562) y su forma compacta en Crockford base32.
+ *
+ * Los 48 bits altos son el timestamp Unix en ms y los 12 de rand_a un contador monótono dentro del
+ * mismo ms, así que dos ids de este proceso nunca se repiten y siempre crecen: los inserts van al
+ * final del índice B-tree en vez de repartirse al azar. Los 62 bits de rand_b salen de
+ * {@link SecureRandom}, como en {@link UUID#randomUUID()}, para que un número de orden no permita
+ * adivinar otros.
+ *
+ * La forma de texto son 26 caracteres Crockford base32 (0-9, A-Z sin I, L, O, U) que ordenan igual
+ * que el UUID, contra 36 del formato canónico.
+ */
+public final class TimeOrderedIds {
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final byte[] DECODE = new byte[128];
+    private static final int ENCODED_LENGTH = 26;
+
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE[ALPHABET[i]] = (byte) i;
+            DECODE[Character.toLowerCase(ALPHABET[i])] = (byte) i;
+        }
+    }
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    /** (unix_ms << 12) | contador del último id emitido. */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private TimeOrderedIds() {
+    }
+
+    /** Nuevo UUIDv7; si el contador del ms se agota, el timestamp avanza un ms (nunca retrocede). */
+    public static UUID newUuid() {
+        long now = System.currentTimeMillis() << 12;
+        long state = LAST.updateAndGet(previous -> Math.max(previous + 1, now));
+        long msb = (state >>> 12) << 16 | 0x7000L | (state & 0xFFFL);
+        long lsb = RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    /** Nuevo UUIDv7 ya codificado en 26 caracteres. */
+    public static String newCompactId() {
+        return encode(newUuid());
+    }
+
+    public static String encode(UUID uuid) {
+        long hi = uuid.getMostSignificantBits();
+        long lo = uuid.getLeastSignificantBits();
+        char[] out = new char[ENCODED_LENGTH];
+        // 25 caracteres de 5 bits desde el final; el primero lleva los 3 bits más altos
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            out[i] = ALPHABET[(int) (lo & 31)];
+            lo = (lo >>> 5) | (hi << 59);
+            hi >>>= 5;
+        }
+        return new String(out);
+    }
+
+    /**
+     * UUIDv7 de un id compacto.
+     * @return vacío si el texto no es un UUIDv7 codificado (p. ej. números de orden anteriores)
+     */
+    public static Optional<UUID> decode(String compactId) {
+        if (compactId == null || compactId.length() != ENCODED_LENGTH) {
+            return Optional.empty();
+        }
+        long hi = 0;
+        long lo = 0;
+        for (int i = 0; i < ENCODED_LENGTH; i++) {
+            char c = compactId.charAt(i);
+            int value = c < 128 ? DECODE[c] : -1;
+            if (value < 0 || (i == 0 && value > 7)) {
+                return Optional.empty();
+            }
+            hi = (hi << 5) | (lo >>> 59);
+            lo = (lo << 5) | value;
+        }
+        UUID uuid = new UUID(hi, lo);
+        return uuid.version() == 7 ? Optional.of(uuid) : Optional.empty();
+    }
+}
@@ -19,6 +19,13 @@ public interface OrderUseCase {
      */
     Order createOrder(Order order);
 
+    /**
+     * Creates several orders in a single transaction; if one fails none is created
+     * @param orders the orders to create
+     * @return the created orders, in the same order
+     */
+    List<Order> createOrders(List<Order> orders);
+
     /**
      * Retrieves an order by its order number
      * @param orderNumber the order number
@@ -43,4 +50,12 @@ public interface OrderUseCase {
      * @return the updated order
      */
     Order confirmOrder(OrderNumber orderNumber);
+
+    /**
+     * Confirms several orders in a single transaction; if one does not exist or is not PENDING
+     * none is confirmed
+     * @param orderNumbers the order numbers
+     * @return the updated orders, in the requested order
+     */
+    List<Order> confirmOrders(List<OrderNumber> orderNumbers);
 } 
\ No newline at end of file
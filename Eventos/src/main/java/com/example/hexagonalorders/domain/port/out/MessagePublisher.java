@@ -1,5 +1,37 @@
 package com.example.hexagonalorders.domain.port.out;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
 public interface MessagePublisher {
-    void publish(String topic, String payload);
+
+    /**
+     * Publishes a message asynchronously.
+     * @return a future completed when the broker acknowledged the message,
+     *         or completed exceptionally if it could not be delivered
+     */
+    CompletableFuture<Void> publish(Message message);
+
+    /**
+     * Publishes all messages in a single broker transaction, blocking until it is committed.
+     * Consumers reading committed data see either all of them or none.
+     * @param transactionScope stable id of the sender; starting a transaction fences any
+     *                         older sender (e.g. a previous owner of the shard) with the same scope
+     * @throws RuntimeException if the transaction was aborted
+     */
+    void publishAtomically(String transactionScope, List<Message> messages);
+
+    record Message(String topic, String key, String payload, Metadata metadata) {
+    }
+
+    /**
+     * Event metadata sent next to the payload (Kafka headers), so consumers can filter
+     * and route records without parsing them.
+     * @param eventId stable across re-sends of the same outbox row, usable for deduplication
+     */
+    record Metadata(String eventType, int schemaVersion, UUID aggregateId, UUID eventId,
+                    Instant occurredAt, String traceId) {
+    }
 }
@@ -3,6 +3,7 @@ package com.example.hexagonalorders.domain.port.out;
 import com.example.hexagonalorders.domain.model.Order;
 import com.example.hexagonalorders.domain.model.valueobject.OrderNumber;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +20,13 @@ public interface OrderRepository {
      */
     Order save(Order order);
 
+    /**
+     * Saves several orders in a single unit of work
+     * @param orders the orders to save
+     * @return the saved orders, in the same order
+     */
+    List<Order> saveAll(List<Order> orders);
+
     /**
      * Finds an order by its order number
      * @param orderNumber the order number
@@ -26,6 +34,13 @@ public interface OrderRepository {
      */
     Optional<Order> findByOrderNumber(OrderNumber orderNumber);
 
+    /**
+     * Finds the orders with any of the given order numbers
+     * @param orderNumbers the order numbers
+     * @return the orders found; numbers without an order are absent
+     */
+    List<Order> findByOrderNumbers(Collection<OrderNumber> orderNumbers);
+
     /**
      * Retrieves all orders
      * @return list of all orders
@@ -2,16 +2,93 @@ package com.example.hexagonalorders.domain.port.out;
 
 import com.example.hexagonalorders.domain.model.OutboxMessage;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface OutboxRepository {
 
     void save(OutboxMessage message);
 
-    List<OutboxMessage> findPending(int limit);
+    /**
+     * Shard an aggregate is hashed to.
+     * @param aggregateId the aggregate id
+     * @return the shard number
+     */
+    int shardOf(UUID aggregateId);
 
-    void markProcessed(UUID id);
+    /**
+     * Shards that currently hold PENDING messages due for a (re)try.
+     * Every aggregate is hashed to exactly one shard, so draining a shard
+     * sequentially keeps the per-aggregate order.
+     * @return the shard numbers with pending work
+     */
+    List<Integer> findShardsWithPending();
 
-    void markFailed(UUID id);
+    /**
+     * Takes (or renews) the lease on a shard if it is free, expired or already owned by {@code owner}.
+     * @return true if {@code owner} holds the lease afterwards
+     */
+    boolean acquireShard(int shard, String owner, Instant leaseUntil);
+
+    void releaseShard(int shard, String owner);
+
+    /**
+     * Claims up to {@code limit} pending messages of a shard in creation order, skipping rows
+     * locked or claimed by other workers. Rows whose lease expired (crashed worker) are claimable again.
+     * Only metadata is read: the returned messages carry no payload.
+     * @return the claimed messages
+     */
+    List<OutboxMessage> claimPending(int shard, String owner, Instant leaseUntil, int limit);
+
+    /**
+     * Loads and decodes the payloads of messages returned by {@link #claimPending}.
+     * @return the same messages, in the same order, with their payload
+     * @throws IllegalStateException if some message no longer has a row; none is returned
+     */
+    List<OutboxMessage> loadPayloads(List<OutboxMessage> messages);
+
+    /**
+     * Claims a single message if it is still pending, unclaimed, and no older message
+     * of the same aggregate is pending (so publishing it cannot overtake its predecessors).
+     * @return true if the message was claimed by {@code owner}
+     */
+    boolean claim(UUID id, String owner, Instant leaseUntil);
+
+    /**
+     * Marks a whole batch of messages as processed with a single bulk update.
+     * @param ids the outbox message ids
+     */
+    void markProcessed(Collection<UUID> ids);
+
+    /**
+     * Releases a batch of messages for a later retry.
+     * @param attempts the number of failed attempts so far
+     * @param nextAttemptAt earliest instant the messages may be claimed again
+     */
+    void scheduleRetry(Collection<UUID> ids, int attempts, Instant nextAttemptAt);
+
+    /**
+     * Copies a message that exhausted its retries to the dead-letter table and marks it as failed.
+     * @param attempts the number of failed attempts
+     * @param lastError description of the last publish error
+     */
+    void deadLetter(UUID id, int attempts, String lastError);
+
+    /**
+     * Removes up to {@code limit} PROCESSED/FAILED messages processed before {@code olderThan}.
+     * @param archive copy the rows to the archive table before deleting them
+     * @return the number of messages removed
+     */
+    int purgeCompleted(Instant olderThan, int limit, boolean archive);
+
+    long countByStatus(OutboxMessage.Status status);
+
+    /**
+     * Creation time of the oldest PENDING message.
+     * @return the instant, or empty if nothing is pending
+     */
+    Optional<Instant> findOldestPendingCreatedAt();
 }
@@ -0,0 +1,153 @@
+package com.example.hexagonalorders.infrastructure.benchmark;
+
+import com.example.hexagonalorders.domain.model.TimeOrderedIds;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Compara los esquemas de identificadores (perfil {@code benchmark}, {@code benchmark.suite=ids}):
+ * UUID v4 aleatorios (número de orden de 36 caracteres, id de outbox random, aggregate id MD5)
+ * contra UUIDv7 (número de orden Crockford de 26 caracteres, id de outbox v7, aggregate id
+ * decodificado del número).
+ *
+ * Cada esquema inserta {@code benchmark.ids.rows} filas en una base H2 en archivo propia, con la
+ * forma de las tablas reales: el índice único de orders.order_number y la PK uuid + índice de
+ * aggregate_id del outbox. Reporta filas/s (generación de ids incluida) y espacio en disco por tabla.
+ */
+@Slf4j
+@Component
+@Profile("benchmark")
+@ConditionalOnProperty(name = "benchmark.suite", havingValue = "ids")
+@RequiredArgsConstructor
+public class IdBenchmark implements CommandLineRunner {
+
+    private final ConfigurableApplicationContext context;
+
+    @Value("${benchmark.ids.rows:500000}")
+    private int rows;
+
+    @Value("${benchmark.ids.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${benchmark.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    private enum Scheme {
+        UUID_V4 {
+            String orderNumber() {
+                return UUID.randomUUID().toString();
+            }
+
+            UUID outboxId() {
+                return UUID.randomUUID();
+            }
+
+            UUID aggregateId(String orderNumber) {
+                return UUID.nameUUIDFromBytes(orderNumber.getBytes());
+            }
+        },
+        UUID_V7 {
+            String orderNumber() {
+                return TimeOrderedIds.newCompactId();
+            }
+
+            UUID outboxId() {
+                return TimeOrderedIds.newUuid();
+            }
+
+            UUID aggregateId(String orderNumber) {
+                return TimeOrderedIds.decode(orderNumber).orElseThrow();
+            }
+        };
+
+        abstract String orderNumber();
+
+        abstract UUID outboxId();
+
+        abstract UUID aggregateId(String orderNumber);
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        Path directory = Files.createTempDirectory("id-benchmark");
+        log.info("Id benchmark: {} rows per scheme, batches of {}, H2 files in {}", rows, batchSize, directory);
+        try {
+            for (Scheme scheme : Scheme.values()) {
+                // primera pasada de calentamiento (JIT, SecureRandom), segunda medida
+                measure(scheme, directory, Math.min(rows, 50_000), false);
+                measure(scheme, directory, rows, true);
+            }
+        } finally {
+            FileSystemUtils.deleteRecursively(directory);
+        }
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    private void measure(Scheme scheme, Path directory, int count, boolean report) throws SQLException {
+        String url = "jdbc:h2:file:" + directory.resolve(scheme.name() + (report ? "" : "-warmup"));
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            try (Statement ddl = connection.createStatement()) {
+                ddl.execute("CREATE TABLE orders (id BIGINT PRIMARY KEY, order_number VARCHAR(255) NOT NULL UNIQUE)");
+                ddl.execute("CREATE TABLE outbox (id UUID PRIMARY KEY, aggregate_id UUID NOT NULL)");
+                ddl.execute("CREATE INDEX idx_outbox_aggregate ON outbox (aggregate_id)");
+            }
+            connection.setAutoCommit(false);
+
+            long start = System.nanoTime();
+            try (PreparedStatement orders = connection.prepareStatement("INSERT INTO orders VALUES (?, ?)");
+                 PreparedStatement outbox = connection.prepareStatement("INSERT INTO outbox VALUES (?, ?)")) {
+                for (int i = 1; i <= count; i++) {
+                    String orderNumber = scheme.orderNumber();
+                    orders.setLong(1, i);
+                    orders.setString(2, orderNumber);
+                    orders.addBatch();
+                    outbox.setObject(1, scheme.outboxId());
+                    outbox.setObject(2, scheme.aggregateId(orderNumber));
+                    outbox.addBatch();
+                    if (i % batchSize == 0 || i == count) {
+                        orders.executeBatch();
+                        outbox.executeBatch();
+                        connection.commit();
+                    }
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+
+            if (report) {
+                log.info("{}: {} rows/s; disk orders={} KB outbox={} KB",
+                        scheme, String.format("%.0f", count / (elapsed / 1e9)),
+                        diskSpaceKb(connection, "ORDERS"), diskSpaceKb(connection, "OUTBOX"));
+            }
+        }
+    }
+
+    /** Tabla más sus índices, según H2. */
+    private static long diskSpaceKb(Connection connection, String table) throws SQLException {
+        try (Statement query = connection.createStatement();
+             ResultSet result = query.executeQuery("CALL DISK_SPACE_USED('" + table + "')")) {
+            result.next();
+            return result.getLong(1) / 1024;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.hexagonalorders.infrastructure.benchmark;
+
+import com.example.hexagonalorders.domain.model.Order;
+import com.example.hexagonalorders.domain.model.OrderItem;
+import com.example.hexagonalorders.domain.model.OrderStatus;
+import com.example.hexagonalorders.domain.model.valueobject.ProductNumber;
+import com.example.hexagonalorders.domain.model.valueobject.Quantity;
+import com.example.hexagonalorders.domain.port.out.OrderNumberGenerator;
+import com.example.hexagonalorders.domain.port.out.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark del alta de órdenes contra la base (perfil {@code benchmark},
+ * {@code benchmark.suite=persistence}). Para cada cantidad de líneas de
+ * {@code benchmark.persistence.line-counts} persiste órdenes con {@link OrderRepository#save} y
+ * reporta órdenes/s, µs por orden y sentencias JDBC preparadas por orden (estadísticas de
+ * Hibernate). Mide el mapeo actual (ids de secuencia pooled con inserts en batch): las sentencias
+ * por orden deberían quedar casi constantes al crecer las líneas.
+ */
+@Slf4j
+@Component
+@Profile("benchmark")
+@ConditionalOnProperty(name = "benchmark.suite", havingValue = "persistence")
+@RequiredArgsConstructor
+public class PersistenceBenchmark implements CommandLineRunner {
+
+    private final OrderRepository orderRepository;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${benchmark.persistence.line-counts:1,10,50}")
+    private int[] lineCounts;
+
+    @Value("${benchmark.persistence.orders:2000}")
+    private int orders;
+
+    @Value("${benchmark.persistence.warmup-orders:500}")
+    private int warmupOrders;
+
+    @Value("${benchmark.persistence.orders-per-transaction:1}")
+    private int ordersPerTransaction;
+
+    @Value("${benchmark.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    @Override
+    public void run(String... args) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        log.info("Persistence benchmark: {} warm-up + {} measured orders per line count, {} orders per transaction",
+                warmupOrders, orders, ordersPerTransaction);
+
+        for (int lines : lineCounts) {
+            persist(warmupOrders, lines);
+            statistics.clear();
+            long start = System.nanoTime();
+            persist(orders, lines);
+            long elapsed = System.nanoTime() - start;
+            report(lines, elapsed, statistics);
+        }
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    private void persist(int count, int lines) {
+        for (int done = 0; done < count; done += ordersPerTransaction) {
+            int size = Math.min(ordersPerTransaction, count - done);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < size; i++) {
+                    orderRepository.save(newOrder(lines));
+                }
+            });
+        }
+    }
+
+    private Order newOrder(int lines) {
+        List<OrderItem> items = new ArrayList<>(lines);
+        for (int line = 0; line < lines; line++) {
+            items.add(new OrderItem(new ProductNumber("P" + line), new Quantity(1 + line % 3), BigDecimal.TEN));
+        }
+        return new Order(orderNumberGenerator.generate(), "benchmark", LocalDateTime.now(), items, OrderStatus.PENDING);
+    }
+
+    private void report(int lines, long elapsedNanos, Statistics statistics) {
+        double seconds = elapsedNanos / 1e9;
+        log.info("lines={} -> {} orders/s, {} us/order, {} JDBC statements/order, {} transactions",
+                lines,
+                String.format("%.0f", orders / seconds),
+                String.format("%.1f", elapsedNanos / 1e3 / orders),
+                String.format("%.2f", (double) statistics.getPrepareStatementCount() / orders),
+                statistics.getTransactionCount());
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.hexagonalorders.infrastructure.benchmark;
+
+import com.example.hexagonalorders.application.event.IntegrationEventRoutes;
+import com.example.hexagonalorders.application.event.OrderConfirmedIntegrationEvent;
+import com.example.hexagonalorders.domain.model.Order;
+import com.example.hexagonalorders.domain.model.OrderItem;
+import com.example.hexagonalorders.domain.model.OrderStatus;
+import com.example.hexagonalorders.domain.model.valueobject.OrderNumber;
+import com.example.hexagonalorders.domain.model.valueobject.ProductNumber;
+import com.example.hexagonalorders.domain.model.valueobject.Quantity;
+import com.example.hexagonalorders.domain.port.in.OrderUseCase;
+import com.example.hexagonalorders.infrastructure.out.messaging.InMemoryMessagePublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Benchmark del pipeline orden -> outbox -> broker -> consumidor dentro de un solo proceso
+ * (perfil {@code benchmark}, sin Redpanda). El broker es {@link InMemoryMessagePublisher} y el
+ * consumidor imita a delivery-service: parsea el payload y toma el número de orden.
+ *
+ * Carga de lazo abierto: cada orden (alta + confirmación) tiene un instante de inicio planificado
+ * a {@code benchmark.rate-per-second}; la latencia se mide desde ese instante hasta la recepción en
+ * el consumidor, de modo que el encolamiento del propio driver también cuenta.
+ */
+@Slf4j
+@Component
+@Profile("benchmark")
+@ConditionalOnProperty(name = "benchmark.suite", havingValue = "pipeline", matchIfMissing = true)
+@RequiredArgsConstructor
+public class PipelineBenchmark implements CommandLineRunner {
+
+    private final OrderUseCase orderUseCase;
+    private final InMemoryMessagePublisher broker;
+    private final IntegrationEventRoutes routes;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${benchmark.orders:20000}")
+    private int orders;
+
+    @Value("${benchmark.warmup-orders:2000}")
+    private int warmupOrders;
+
+    @Value("${benchmark.rate-per-second:500}")
+    private int ratePerSecond;
+
+    @Value("${benchmark.driver-threads:8}")
+    private int driverThreads;
+
+    @Value("${benchmark.timeout:5m}")
+    private Duration timeout;
+
+    @Value("${benchmark.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    /** Inicio planificado (nanoTime) por número de orden, hasta que llega al consumidor. */
+    private final Map<String, Long> startedAt = new ConcurrentHashMap<>();
+    private final AtomicInteger recorded = new AtomicInteger();
+    private long[] latencies;
+    private CountDownLatch delivered;
+    private volatile int measuredFrom;
+
+    @Override
+    public void run(String... args) throws Exception {
+        int total = warmupOrders + orders;
+        latencies = new long[orders];
+        delivered = new CountDownLatch(total);
+        measuredFrom = warmupOrders;
+        ObjectReader reader = objectMapper.reader();
+        broker.subscribe(routes.forEvent(OrderConfirmedIntegrationEvent.class).topic(),
+                payload -> onDelivered(payload, reader));
+
+        log.info("Pipeline benchmark: {} warm-up + {} measured orders at {}/s, {} driver threads",
+                warmupOrders, orders, ratePerSecond, driverThreads);
+        ExecutorService driver = Executors.newFixedThreadPool(driverThreads,
+                new CustomizableThreadFactory("benchmark-driver-"));
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long start = System.nanoTime();
+        long measuredStart = start + warmupOrders * periodNanos;
+        for (int i = 0; i < total; i++) {
+            long intendedStart = start + i * periodNanos;
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            int index = i;
+            driver.execute(() -> placeAndConfirm(index, intendedStart));
+        }
+        boolean completed = delivered.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        long elapsed = System.nanoTime() - measuredStart;
+        driver.shutdownNow();
+        report(completed, elapsed);
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context, () -> completed ? 0 : 1));
+        }
+    }
+
+    private void placeAndConfirm(int index, long intendedStart) {
+        try {
+            Order order = orderUseCase.createOrder(new Order(null, "benchmark-" + (index % 1000),
+                    LocalDateTime.now(),
+                    List.of(new OrderItem(new ProductNumber("P" + (index % 50)), new Quantity(1), BigDecimal.TEN)),
+                    OrderStatus.PENDING));
+            OrderNumber orderNumber = order.getOrderNumber();
+            startedAt.put(orderNumber.value(), index < measuredFrom ? -1L : intendedStart);
+            orderUseCase.confirmOrder(orderNumber);
+        } catch (Exception e) {
+            log.error("Benchmark order {} failed", index, e);
+            delivered.countDown();
+        }
+    }
+
+    private void onDelivered(String payload, ObjectReader reader) {
+        long now = System.nanoTime();
+        try {
+            Long intendedStart = startedAt.remove(reader.readTree(payload).path("orderNumber").asText());
+            if (intendedStart != null && intendedStart >= 0) {
+                int slot = recorded.getAndIncrement();
+                if (slot < latencies.length) {
+                    latencies[slot] = now - intendedStart;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Benchmark consumer could not read payload: {}", e.getMessage());
+        }
+        delivered.countDown();
+    }
+
+    private void report(boolean completed, long elapsedNanos) {
+        int count = Math.min(recorded.get(), latencies.length);
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        double seconds = elapsedNanos / 1e9;
+        log.info("Pipeline benchmark {}: delivered {}/{} measured orders in {} s -> {} orders/s",
+                completed ? "finished" : "TIMED OUT", count, orders,
+                String.format("%.1f", seconds), String.format("%.1f", count / seconds));
+        log.info("End-to-end latency (ms): p50={} p99={} p999={} max={}",
+                millis(sorted, 0.50), millis(sorted, 0.99), millis(sorted, 0.999),
+                count == 0 ? "-" : String.format("%.2f", sorted[count - 1] / 1e6));
+    }
+
+    private static String millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return "-";
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return String.format("%.2f", sorted[Math.max(index, 0)] / 1e6);
+    }
+}
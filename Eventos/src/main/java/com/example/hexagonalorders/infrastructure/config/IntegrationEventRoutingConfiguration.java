@@ -0,0 +1,43 @@
+package com.example.hexagonalorders.infrastructure.config;
+
+import com.example.hexagonalorders.application.event.IntegrationEventRoute;
+import com.example.hexagonalorders.application.event.IntegrationEventRoutes;
+import com.example.hexagonalorders.application.event.OrderConfirmedIntegrationEvent;
+import com.example.hexagonalorders.infrastructure.out.messaging.TopicNameMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Configuration
+public class IntegrationEventRoutingConfiguration {
+
+    @Bean
+    public IntegrationEventRoutes integrationEventRoutes(ObjectMapper objectMapper, TopicNameMapper topicNameMapper) {
+        return new IntegrationEventRoutes(List.of(
+                route(OrderConfirmedIntegrationEvent.class, 1, "Order", OrderConfirmedIntegrationEvent::getOrderNumber,
+                        true, objectMapper, topicNameMapper)
+        ));
+    }
+
+    /**
+     * @param schemaVersion subir al cambiar el payload de forma incompatible (viaja en el header)
+     * @param key clave del record: el id del aggregate, para que el orden sea por aggregate
+     */
+    private static <E> IntegrationEventRoute route(Class<E> eventClass, int schemaVersion, String aggregateType,
+                                                   Function<E, String> key, boolean directPublish,
+                                                   ObjectMapper objectMapper, TopicNameMapper topicNameMapper) {
+        String eventType = eventClass.getSimpleName();
+        return new IntegrationEventRoute(
+                eventClass,
+                eventType,
+                schemaVersion,
+                aggregateType,
+                topicNameMapper.mapToTopicName(aggregateType, eventType),
+                event -> key.apply(eventClass.cast(event)),
+                objectMapper.writerFor(eventClass),
+                directPublish);
+    }
+}
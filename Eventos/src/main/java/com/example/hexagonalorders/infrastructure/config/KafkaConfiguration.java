@@ -1,11 +1,17 @@
 package com.example.hexagonalorders.infrastructure.config;
 
+import com.example.hexagonalorders.application.event.IntegrationEventRoute;
+import com.example.hexagonalorders.application.event.IntegrationEventRoutes;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 
@@ -13,6 +19,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
+@Profile("!benchmark")
 public class KafkaConfiguration {
 
     @Value("${spring.kafka.bootstrap-servers}")
@@ -30,6 +37,17 @@ public class KafkaConfiguration {
     @Value("${spring.kafka.producer.buffer-memory:33554432}")
     private int bufferMemory;
 
+    // Tope para el ack de cada envío; debe ser menor que outbox.lease.ms
+    @Value("${kafka.producer.delivery-timeout-ms:60000}")
+    private int deliveryTimeoutMs;
+
+    // Las particiones fijan el paralelismo máximo del consumer group; la clave es el número de orden
+    @Value("${kafka.topic.partitions:6}")
+    private int topicPartitions;
+
+    @Value("${kafka.topic.replication-factor:1}")
+    private short topicReplicationFactor;
+
     @Bean
     public ProducerFactory<String,String> producerFactory() {
         Map<String,Object> cfg = new HashMap<>();
@@ -42,6 +60,7 @@ public class KafkaConfiguration {
         cfg.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory);
         cfg.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
         cfg.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        cfg.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
         return new DefaultKafkaProducerFactory<>(cfg);
     }
 
@@ -49,4 +68,17 @@ public class KafkaConfiguration {
     public KafkaTemplate<String,String> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
+
+    /** Crea al arrancar los tópicos de la tabla de ruteo que no existan (KafkaAdmin no reduce particiones). */
+    @Bean
+    public KafkaAdmin.NewTopics integrationEventTopics(IntegrationEventRoutes routes) {
+        return new KafkaAdmin.NewTopics(routes.all().stream()
+                .map(IntegrationEventRoute::topic)
+                .distinct()
+                .map(topic -> TopicBuilder.name(topic)
+                        .partitions(topicPartitions)
+                        .replicas(topicReplicationFactor)
+                        .build())
+                .toArray(NewTopic[]::new));
+    }
 }
@@ -4,8 +4,6 @@ import com.example.hexagonalorders.application.service.OrderService;
 import com.example.hexagonalorders.domain.service.OrderValidationService;
 import com.example.hexagonalorders.domain.port.out.OrderNumberGenerator;
 import com.example.hexagonalorders.domain.port.out.OrderRepository;
-import com.example.hexagonalorders.domain.port.out.OutboxRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,17 +16,13 @@ public class OrderConfiguration {
             OrderRepository orderRepository,
             OrderNumberGenerator orderNumberGenerator,
             OrderValidationService orderValidationService,
-            ApplicationEventPublisher eventPublisher,
-            OutboxRepository outboxRepository,
-            ObjectMapper objectMapper) {
+            ApplicationEventPublisher eventPublisher) {
 
         return new OrderService(
                 orderRepository,
                 orderNumberGenerator,
                 orderValidationService,
-                eventPublisher,
-                outboxRepository,
-                objectMapper
+                eventPublisher
         );
     }
 
@@ -0,0 +1,204 @@
+package com.example.hexagonalorders.infrastructure.in.command;
+
+import com.example.hexagonalorders.domain.model.valueobject.OrderNumber;
+import com.example.hexagonalorders.domain.port.in.OrderUseCase;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cola acotada de confirmaciones asíncronas ({@code POST /api/orders/{n}/confirm?async=true}).
+ * El request solo encola y responde 202; los workers drenan la cola y confirman todo lo acumulado
+ * (hasta {@code orders.confirm.max-batch}) en una sola transacción con
+ * {@link OrderUseCase#confirmOrders}. Cuanto más carga, más grandes los lotes: no hay espera
+ * artificial para juntar comandos. Si el lote falla (una orden inexistente o no PENDING hace
+ * rollback de todo) se reintenta orden por orden para aislar las rechazadas.
+ *
+ * Con la cola llena {@link #submit} devuelve false y el controller responde 503: la contrapresión
+ * llega al cliente en vez de acumular memoria. La cola vive en memoria: un 202 es aceptación, no
+ * durabilidad; lo encolado se pierde si el proceso muere (al apagar se drena lo pendiente).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderConfirmationQueue {
+
+    public enum State {
+        QUEUED, CONFIRMED, REJECTED
+    }
+
+    public record Confirmation(String orderNumber, State state, String error, Instant updatedAt) {
+    }
+
+    private final OrderUseCase orderUseCase;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${orders.confirm.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${orders.confirm.max-batch:500}")
+    private int maxBatch;
+
+    @Value("${orders.confirm.workers:1}")
+    private int workerThreads;
+
+    /** Cuánto se recuerda el resultado de una confirmación terminada para el status-poll. */
+    @Value("${orders.confirm.status-retention:10m}")
+    private Duration statusRetention;
+
+    @Value("${orders.confirm.shutdown-timeout:10s}")
+    private Duration shutdownTimeout;
+
+    /** Estado por número de orden: una orden está a lo sumo una vez en la cola. */
+    private final Map<String, Confirmation> confirmations = new ConcurrentHashMap<>();
+    private BlockingQueue<OrderNumber> queue;
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    private Counter accepted;
+    private Counter rejectedFull;
+    private Counter confirmed;
+    private Counter rejected;
+    private DistributionSummary batchSize;
+
+    @PostConstruct
+    void startWorkers() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        meterRegistry.gauge("orders.confirm.queue.depth", queue, BlockingQueue::size);
+        accepted = commands("accepted");
+        rejectedFull = commands("queue_full");
+        confirmed = commands("confirmed");
+        rejected = commands("rejected");
+        batchSize = DistributionSummary.builder("orders.confirm.batch.size")
+                .description("Confirmaciones por transacción")
+                .register(meterRegistry);
+
+        running = true;
+        workers = Executors.newFixedThreadPool(workerThreads, new CustomizableThreadFactory("order-confirm-"));
+        for (int i = 0; i < workerThreads; i++) {
+            workers.execute(this::drain);
+        }
+    }
+
+    /** Deja de aceptar, confirma lo que quedó en la cola y espera hasta shutdown-timeout. */
+    @PreDestroy
+    void stopWorkers() throws InterruptedException {
+        running = false;
+        workers.shutdown();
+        if (!workers.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Order confirmation queue stopped with {} commands still queued", queue.size());
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Encola la confirmación; true también si la orden ya estaba encolada.
+     * @return false si la cola está llena (o apagándose)
+     */
+    public boolean submit(OrderNumber orderNumber) {
+        if (!running) {
+            return false;
+        }
+        boolean[] queued = {true};
+        confirmations.compute(orderNumber.value(), (number, current) -> {
+            if (current != null && current.state() == State.QUEUED) {
+                return current;
+            }
+            if (!queue.offer(orderNumber)) {
+                queued[0] = false;
+                return current;
+            }
+            return new Confirmation(number, State.QUEUED, null, Instant.now());
+        });
+        (queued[0] ? accepted : rejectedFull).increment();
+        return queued[0];
+    }
+
+    public Optional<Confirmation> status(OrderNumber orderNumber) {
+        return Optional.ofNullable(confirmations.get(orderNumber.value()));
+    }
+
+    /** Olvida los resultados terminados más viejos que status-retention. */
+    @Scheduled(fixedDelayString = "${orders.confirm.status-sweep-ms:60000}")
+    public void purgeCompleted() {
+        Instant cutoff = Instant.now().minus(statusRetention);
+        confirmations.values().removeIf(c -> c.state() != State.QUEUED && c.updatedAt().isBefore(cutoff));
+    }
+
+    private void drain() {
+        List<OrderNumber> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                OrderNumber first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                confirm(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Order confirmation batch of {} failed unexpectedly", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void confirm(List<OrderNumber> batch) {
+        batchSize.record(batch.size());
+        try {
+            orderUseCase.confirmOrders(batch);
+            batch.forEach(number -> complete(number, State.CONFIRMED, null));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                complete(batch.get(0), State.REJECTED, e.getMessage());
+                return;
+            }
+            log.debug("Confirmation batch of {} rolled back ({}); confirming one by one", batch.size(), e.getMessage());
+            for (OrderNumber number : batch) {
+                try {
+                    orderUseCase.confirmOrder(number);
+                    complete(number, State.CONFIRMED, null);
+                } catch (RuntimeException ex) {
+                    complete(number, State.REJECTED, ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private void complete(OrderNumber orderNumber, State state, String error) {
+        confirmations.put(orderNumber.value(), new Confirmation(orderNumber.value(), state, error, Instant.now()));
+        (state == State.CONFIRMED ? confirmed : rejected).increment();
+    }
+
+    private Counter commands(String result) {
+        return Counter.builder("orders.confirm.commands")
+                .tag("result", result)
+                .description("Confirmaciones asíncronas por resultado")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.hexagonalorders.infrastructure.in.web;
+
+import com.example.hexagonalorders.domain.model.Order;
+import com.example.hexagonalorders.domain.model.valueobject.OrderNumber;
+import com.example.hexagonalorders.domain.port.in.OrderUseCase;
+import com.example.hexagonalorders.infrastructure.in.web.dto.BatchOrderResultDto;
+import com.example.hexagonalorders.infrastructure.in.web.dto.OrderDto;
+import com.example.hexagonalorders.infrastructure.in.web.mapper.OrderMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Alta y confirmación masiva de órdenes.
+ *
+ * {@code POST /api/orders/batch} lee el cuerpo NDJSON línea por línea (nunca entero en memoria),
+ * persiste cada {@code orders.batch.chunk-size} líneas en una transacción y escribe el resultado
+ * de esas líneas apenas el chunk commitea. Si el chunk falla se reintenta orden por orden para
+ * rechazar solo las líneas culpables.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/orders/batch")
+@RequiredArgsConstructor
+@Tag(name = "Orders", description = "Order management API")
+public class OrderBatchController {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    private final OrderUseCase orderUseCase;
+    private final OrderMapper orderMapper;
+    private final ObjectMapper objectMapper;
+
+    @Value("${orders.batch.chunk-size:100}")
+    private int chunkSize;
+
+    @Value("${orders.batch.max-confirm:1000}")
+    private int maxConfirm;
+
+    @Operation(summary = "Create orders in bulk",
+            description = "Reads one order per NDJSON line and streams back one result line per input line.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Results streamed as NDJSON, CREATED or REJECTED per line")
+    })
+    @PostMapping(consumes = NDJSON, produces = NDJSON)
+    public void createOrders(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        OutputStream out = response.getOutputStream();
+        ObjectReader reader = objectMapper.readerFor(OrderDto.class);
+        ObjectWriter writer = objectMapper.writerFor(BatchOrderResultDto.class);
+
+        BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<BatchLine> chunk = new ArrayList<>(chunkSize);
+        int lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(parse(lineNumber, line, reader));
+            if (chunk.size() >= chunkSize) {
+                writeResults(persist(chunk), out, writer);
+                chunk.clear();
+            }
+        }
+        writeResults(persist(chunk), out, writer);
+    }
+
+    @Operation(summary = "Confirm orders in bulk",
+            description = "Confirms all the given orders in one transaction; if any cannot be confirmed none is.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Orders confirmed successfully"),
+        @ApiResponse(responseCode = "404", description = "Some order was not found"),
+        @ApiResponse(responseCode = "400", description = "Some order cannot be confirmed, or too many orders")
+    })
+    @PostMapping("/confirm")
+    public ResponseEntity<List<OrderDto>> confirmOrders(@RequestBody List<String> orderNumbers) {
+        if (orderNumbers.isEmpty() || orderNumbers.size() > maxConfirm) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            List<Order> confirmed = orderUseCase.confirmOrders(orderNumbers.stream()
+                    .map(OrderNumber::new)
+                    .collect(Collectors.toList()));
+            return ResponseEntity.ok(confirmed.stream().map(orderMapper::toDto).collect(Collectors.toList()));
+        } catch (IllegalStateException | IllegalArgumentException ex) {
+            // Alguna orden no está PENDING, o un número inválido
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException ex) {
+            String msg = ex.getMessage() != null ? ex.getMessage().toLowerCase() : "";
+            if (msg.contains("not found")) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private BatchLine parse(int lineNumber, String line, ObjectReader reader) {
+        try {
+            OrderDto dto = reader.readValue(line);
+            return new BatchLine(lineNumber, orderMapper.toDomain(dto));
+        } catch (JsonProcessingException e) {
+            return new BatchLine(lineNumber, BatchOrderResultDto.rejected(lineNumber, e.getOriginalMessage()));
+        } catch (RuntimeException e) {
+            return new BatchLine(lineNumber, BatchOrderResultDto.rejected(lineNumber, e.getMessage()));
+        }
+    }
+
+    private List<BatchLine> persist(List<BatchLine> chunk) {
+        List<BatchLine> accepted = chunk.stream().filter(line -> line.result == null).collect(Collectors.toList());
+        if (accepted.isEmpty()) {
+            return chunk;
+        }
+        try {
+            List<Order> created = orderUseCase.createOrders(accepted.stream()
+                    .map(line -> line.order)
+                    .collect(Collectors.toList()));
+            for (int i = 0; i < accepted.size(); i++) {
+                accepted.get(i).created(created.get(i));
+            }
+        } catch (RuntimeException e) {
+            // el chunk hizo rollback: de a una orden para rechazar solo las que fallan
+            log.warn("Bulk chunk of {} orders failed ({}); retrying order by order", accepted.size(), e.getMessage());
+            for (BatchLine line : accepted) {
+                try {
+                    line.created(orderUseCase.createOrder(line.order));
+                } catch (RuntimeException ex) {
+                    line.result = BatchOrderResultDto.rejected(line.number, ex.getMessage());
+                }
+            }
+        }
+        return chunk;
+    }
+
+    private static void writeResults(List<BatchLine> chunk, OutputStream out, ObjectWriter writer) throws IOException {
+        for (BatchLine line : chunk) {
+            out.write(writer.writeValueAsBytes(line.result));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private static final class BatchLine {
+        private final int number;
+        private final Order order;
+        private BatchOrderResultDto result;
+
+        BatchLine(int number, Order order) {
+            this.number = number;
+            this.order = order;
+        }
+
+        BatchLine(int number, BatchOrderResultDto rejected) {
+            this.number = number;
+            this.order = null;
+            this.result = rejected;
+        }
+
+        void created(Order created) {
+            result = BatchOrderResultDto.created(number, created.getOrderNumber().value());
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.hexagonalorders.infrastructure.in.web;
 
 import com.example.hexagonalorders.domain.model.Order;
+import com.example.hexagonalorders.domain.model.OrderStatus;
 import com.example.hexagonalorders.domain.model.valueobject.OrderNumber;
 import com.example.hexagonalorders.domain.port.in.OrderUseCase;
+import com.example.hexagonalorders.infrastructure.in.command.OrderConfirmationQueue;
+import com.example.hexagonalorders.infrastructure.in.command.OrderConfirmationQueue.Confirmation;
+import com.example.hexagonalorders.infrastructure.in.web.dto.ConfirmationStatusDto;
 import com.example.hexagonalorders.infrastructure.in.web.dto.OrderDto;
 import com.example.hexagonalorders.infrastructure.in.web.mapper.OrderMapper;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,9 +14,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.util.Optional;
+
 /**
  * REST controller for order operations.
  * This is an input adapter in the infrastructure layer that handles HTTP requests
@@ -26,6 +35,7 @@ public class OrderController {
 
     private final OrderUseCase orderUseCase;
     private final OrderMapper orderMapper;
+    private final OrderConfirmationQueue confirmationQueue;
 
     @Operation(summary = "Create a new order", description = "Creates a new order and returns the created order.")
     @ApiResponses({
@@ -69,11 +79,17 @@ public class OrderController {
     )
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Order confirmed successfully"),
+        @ApiResponse(responseCode = "202", description = "Confirmation queued (async=true); poll the Location URL"),
         @ApiResponse(responseCode = "404", description = "Order not found"),
-        @ApiResponse(responseCode = "400", description = "Order cannot be confirmed (e.g., not in PENDING status)")
+        @ApiResponse(responseCode = "400", description = "Order cannot be confirmed (e.g., not in PENDING status)"),
+        @ApiResponse(responseCode = "503", description = "Confirmation queue full (async=true); retry later")
     })
     @PostMapping("/{orderNumber}/confirm")
-    public ResponseEntity<OrderDto> confirmOrder(@PathVariable String orderNumber) {
+    public ResponseEntity<?> confirmOrder(@PathVariable String orderNumber,
+                                          @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            return enqueueConfirmation(new OrderNumber(orderNumber));
+        }
         try {
             Order confirmed = orderUseCase.confirmOrder(new OrderNumber(orderNumber));
             return ResponseEntity.ok(orderMapper.toDto(confirmed));
@@ -89,5 +105,45 @@ public class OrderController {
             return ResponseEntity.badRequest().build();
         }
     }
-    
+
+    @Operation(summary = "Get the state of an async confirmation",
+            description = "QUEUED until the confirmation transaction commits, then CONFIRMED or REJECTED.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Confirmation state"),
+        @ApiResponse(responseCode = "404", description = "No confirmation requested for this order")
+    })
+    @GetMapping("/{orderNumber}/confirmation")
+    public ResponseEntity<ConfirmationStatusDto> getConfirmation(@PathVariable String orderNumber) {
+        OrderNumber number = new OrderNumber(orderNumber);
+        Optional<ConfirmationStatusDto> tracked = confirmationQueue.status(number).map(OrderController::toDto);
+        if (tracked.isPresent()) {
+            return ResponseEntity.ok(tracked.get());
+        }
+        // resultado ya olvidado (orders.confirm.status-retention): vale el status de la orden
+        return orderUseCase.getOrder(number)
+                .filter(order -> order.getStatus() == OrderStatus.CONFIRMED)
+                .map(order -> new ConfirmationStatusDto(orderNumber, OrderConfirmationQueue.State.CONFIRMED.name(), null, null))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<ConfirmationStatusDto> enqueueConfirmation(OrderNumber orderNumber) {
+        if (!confirmationQueue.submit(orderNumber)) {
+            // contrapresión: la cola está llena
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
+        }
+        URI statusUrl = URI.create("/api/orders/" + orderNumber.value() + "/confirmation");
+        return ResponseEntity.accepted()
+                .location(statusUrl)
+                .body(confirmationQueue.status(orderNumber)
+                        .map(OrderController::toDto)
+                        .orElse(new ConfirmationStatusDto(orderNumber.value(), OrderConfirmationQueue.State.QUEUED.name(), null, null)));
+    }
+
+    private static ConfirmationStatusDto toDto(Confirmation confirmation) {
+        return new ConfirmationStatusDto(confirmation.orderNumber(), confirmation.state().name(),
+                confirmation.error(), confirmation.updatedAt());
+    }
 }
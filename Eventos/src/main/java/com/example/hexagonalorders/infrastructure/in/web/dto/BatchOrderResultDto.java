@@ -0,0 +1,42 @@
+package com.example.hexagonalorders.infrastructure.in.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * Resultado de una línea del alta masiva NDJSON: una línea de respuesta por línea de entrada.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchOrderResultDto {
+    @Schema(description = "Line number in the request body, starting at 1.", example = "1")
+    private int line;
+
+    @Schema(description = "CREATED or REJECTED.", example = "CREATED")
+    private String status;
+
+    @Schema(description = "Generated order number, when created.", example = "ORD-001")
+    private String orderNumber;
+
+    @Schema(description = "Why the line was rejected.", example = "Quantity must be positive")
+    private String error;
+
+    public BatchOrderResultDto() {}
+
+    public static BatchOrderResultDto created(int line, String orderNumber) {
+        BatchOrderResultDto result = new BatchOrderResultDto();
+        result.setLine(line);
+        result.setStatus("CREATED");
+        result.setOrderNumber(orderNumber);
+        return result;
+    }
+
+    public static BatchOrderResultDto rejected(int line, String error) {
+        BatchOrderResultDto result = new BatchOrderResultDto();
+        result.setLine(line);
+        result.setStatus("REJECTED");
+        result.setError(error);
+        return result;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.hexagonalorders.infrastructure.in.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Estado de una confirmación asíncrona (status-poll de {@code /confirm?async=true}).
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ConfirmationStatusDto {
+    @Schema(description = "Business order number.", example = "ORD-001")
+    private String orderNumber;
+
+    @Schema(description = "QUEUED, CONFIRMED or REJECTED.", example = "QUEUED")
+    private String state;
+
+    @Schema(description = "Why the confirmation was rejected.", example = "Order cannot be confirmed unless it is in PENDING status.")
+    private String error;
+
+    @Schema(description = "When the state last changed. Absent when only the order status is known.")
+    private Instant updatedAt;
+
+    public ConfirmationStatusDto() {}
+
+    public ConfirmationStatusDto(String orderNumber, String state, String error, Instant updatedAt) {
+        this.orderNumber = orderNumber;
+        this.state = state;
+        this.error = error;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.hexagonalorders.infrastructure.out.event;
+
+import com.example.hexagonalorders.domain.model.OutboxMessage;
+import com.example.hexagonalorders.domain.port.out.OutboxRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Métricas del pipeline de eventos. El backlog (PENDING/FAILED y edad del pendiente más viejo)
+ * se refresca cada {@code outbox.metrics.refresh-ms} en lugar de consultarse en cada scrape;
+ * todas las instancias reportan el mismo valor global.
+ */
+@Slf4j
+@Component
+public class OutboxMetrics {
+
+    private final OutboxRepository outboxRepository;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    /** Epoch millis del PENDING más viejo; 0 si no hay. */
+    private final AtomicLong oldestPendingMillis = new AtomicLong();
+    private final DistributionSummary batchSize;
+    private final Timer endToEndLag;
+
+    public OutboxMetrics(OutboxRepository outboxRepository, MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        Gauge.builder("outbox.messages", pending, AtomicLong::get)
+                .tag("status", "pending")
+                .description("Outbox rows waiting to be published")
+                .register(meterRegistry);
+        Gauge.builder("outbox.messages", failed, AtomicLong::get)
+                .tag("status", "failed")
+                .description("Outbox rows that exhausted their retries")
+                .register(meterRegistry);
+        Gauge.builder("outbox.oldest.pending.age", oldestPendingMillis, OutboxMetrics::ageSeconds)
+                .baseUnit("seconds")
+                .description("Age of the oldest pending outbox row")
+                .register(meterRegistry);
+        batchSize = DistributionSummary.builder("outbox.poll.batch.size")
+                .description("Rows claimed per outbox poll")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        endToEndLag = Timer.builder("outbox.e2e.lag")
+                .description("Time from outbox row creation to broker ack")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.metrics.refresh-ms:15000}")
+    public void refreshBacklog() {
+        try {
+            pending.set(outboxRepository.countByStatus(OutboxMessage.Status.PENDING));
+            failed.set(outboxRepository.countByStatus(OutboxMessage.Status.FAILED));
+            oldestPendingMillis.set(outboxRepository.findOldestPendingCreatedAt()
+                    .map(Instant::toEpochMilli)
+                    .orElse(0L));
+        } catch (Exception e) {
+            log.warn("Failed to refresh outbox backlog metrics: {}", e.getMessage());
+        }
+    }
+
+    void recordBatch(int claimed) {
+        batchSize.record(claimed);
+    }
+
+    void recordAck(OutboxMessage message) {
+        endToEndLag.record(System.currentTimeMillis() - message.createdAt().toEpochMilli(), TimeUnit.MILLISECONDS);
+    }
+
+    private static double ageSeconds(AtomicLong oldestMillis) {
+        long oldest = oldestMillis.get();
+        return oldest == 0 ? 0 : (System.currentTimeMillis() - oldest) / 1000.0;
+    }
+}
@@ -1,16 +1,68 @@
 package com.example.hexagonalorders.infrastructure.out.event;
 
+import com.example.hexagonalorders.application.event.IntegrationEventRoute;
+import com.example.hexagonalorders.application.event.IntegrationEventRoutes;
+import com.example.hexagonalorders.application.event.OutboxMessageSavedEvent;
 import com.example.hexagonalorders.domain.model.OutboxMessage;
 import com.example.hexagonalorders.domain.port.out.MessagePublisher;
 import com.example.hexagonalorders.domain.port.out.OutboxRepository;
+import com.example.hexagonalorders.infrastructure.out.messaging.PublisherCircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Drena la tabla outbox por lotes.
+ * El outbox está particionado en shards por aggregate; cada hilo worker toma el lease de un shard
+ * con pendientes y lo drena en orden, de modo que varias instancias y varios hilos por instancia
+ * trabajan sobre porciones disjuntas sin romper el orden por aggregate.
+ * Cada lote se reclama (claim + lease) en su propia transacción corta (REQUIRES_NEW: nunca se suma
+ * a la del publish ni a la de los cambios de estado) y se publica de forma asíncrona,
+ * con hasta {@code outbox.publish.max-in-flight} envíos en vuelo por instancia. El estado
+ * se actualiza por lotes a partir de los acks reales del broker: los confirmados quedan PROCESSED y
+ * los fallidos se reprograman con backoff exponencial ({@link OutboxRetryPolicy}) hasta agotar los
+ * intentos, momento en que pasan a la tabla de dead-letter y quedan FAILED. Mientras el
+ * {@link PublisherCircuitBreaker} esté abierto no se drena nada.
+ * Mientras vuelvan lotes completos se sigue drenando sin esperar a {@code outbox.poll.ms}.
+ * Si un worker muere, sus shards y filas vuelven a estar disponibles al vencer el lease.
+ *
+ * Tras el commit de cada fila nueva se agenda su shard de inmediato; el polling
+ * ({@code outbox.poll.ms}) queda solo como red de seguridad. Con {@code outbox.fast-path.enabled}
+ * el mensaje recién confirmado se publica directamente desde memoria (la fila queda como
+ * registro de durabilidad) y solo se escanea la tabla si no se pudo reclamar.
+ *
+ * Con {@code outbox.publish.transactional} cada lote reclamado se publica en una única transacción
+ * Kafka por shard y solo después se marca PROCESSED: un reenvío tras una caída repite lotes ya
+ * commiteados, pero los consumidores en read_committed nunca ven un lote a medias.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -18,25 +70,347 @@ public class OutboxProcessor {
 
     private final OutboxRepository outboxRepository;
     private final MessagePublisher messagePublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final OutboxRetryPolicy retryPolicy;
+    private final PublisherCircuitBreaker circuitBreaker;
+    private final TaskScheduler taskScheduler;
+    private final IntegrationEventRoutes routes;
+    private final OutboxMetrics metrics;
 
-    @Scheduled(fixedDelayString = "${outbox.poll.ms:1000}")
-    @Transactional
+    @Value("${outbox.batch.size:100}")
+    private int batchSize;
+
+    @Value("${outbox.worker.threads:4}")
+    private int workerThreads;
+
+    @Value("${outbox.lease.ms:120000}")
+    private long leaseMs;
+
+    @Value("${outbox.instance-id:${random.uuid}}")
+    private String instanceId;
+
+    @Value("${outbox.publish.max-in-flight:1000}")
+    private int maxInFlight;
+
+    @Value("${outbox.fast-path.enabled:false}")
+    private boolean fastPathEnabled;
+
+    @Value("${outbox.publish.transactional:false}")
+    private boolean transactional;
+
+    /** Más el número de shard: el transactional.id es estable entre instancias y reinicios. */
+    @Value("${outbox.publish.transactional-id-prefix:hexagonal-orders-outbox-}")
+    private String transactionalIdPrefix;
+
+    /** Shards con trabajo avisado; un shard activo vuelve a drenarse si sigue marcado. */
+    private final Set<Integer> dirtyShards = ConcurrentHashMap.newKeySet();
+    /** Shards encolados o drenándose en esta instancia (a lo sumo una tarea por shard). */
+    private final Set<Integer> activeShards = ConcurrentHashMap.newKeySet();
+    private final Map<Integer, Queue<OutboxMessage>> directMessages = new ConcurrentHashMap<>();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    /** Solo para los claims: commitea apenas se escribe el lease, aunque haya una transacción abierta. */
+    private TransactionTemplate claimTransaction;
+    private Semaphore inFlightPermits;
+    private ExecutorService workers;
+
+    @PostConstruct
+    void startWorkers() {
+        claimTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        claimTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        inFlightPermits = new Semaphore(maxInFlight);
+        meterRegistry.gauge("outbox.publish.in.flight", inFlight);
+        workers = Executors.newFixedThreadPool(workerThreads, new CustomizableThreadFactory("outbox-worker-"));
+        circuitBreaker.onClose(() -> workers.execute(this::processPendingMessages)); // fuera del hilo del producer
+    }
+
+    @PreDestroy
+    void stopWorkers() {
+        workers.shutdownNow();
+    }
+
+    /** Red de seguridad: agenda los shards con pendientes que no llegaron por aviso. */
+    @Scheduled(fixedDelayString = "${outbox.poll.ms:30000}")
     public void processPendingMessages() {
-        List<OutboxMessage> pendingMessages = outboxRepository.findPending(10);
+        outboxRepository.findShardsWithPending().forEach(this::schedule);
+    }
+
+    /** Mientras el breaker no esté cerrado, intenta periódicamente el mensaje de prueba. */
+    @Scheduled(fixedDelayString = "${outbox.circuit-breaker.probe-interval-ms:5000}")
+    public void probeBroker() {
+        if (circuitBreaker.state() != PublisherCircuitBreaker.State.CLOSED) {
+            processPendingMessages();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOutboxMessageSaved(OutboxMessageSavedEvent event) {
+        OutboxMessage message = event.message();
+        int shard = outboxRepository.shardOf(message.aggregateId());
+        if (fastPathEnabled && routes.forEventType(message.eventType()).directPublish()) {
+            directMessages.computeIfAbsent(shard, s -> new ConcurrentLinkedQueue<>()).add(message);
+        }
+        schedule(shard);
+    }
+
+    private void schedule(int shard) {
+        dirtyShards.add(shard);
+        if (activeShards.add(shard)) {
+            workers.execute(() -> runShard(shard));
+        }
+    }
+
+    private void runShard(int shard) {
+        try {
+            while (dirtyShards.remove(shard)) {
+                drainShard(shard);
+            }
+        } finally {
+            activeShards.remove(shard);
+        }
+        if (dirtyShards.contains(shard)) {
+            schedule(shard); // aviso llegado justo al terminar
+        }
+    }
+
+    private void drainShard(int shard) {
+        if (!outboxRepository.acquireShard(shard, instanceId, leaseUntil())) {
+            // otro worker lo está drenando: las filas siguen PENDING y las publica él desde la tabla
+            Queue<OutboxMessage> queue = directMessages.get(shard);
+            if (queue != null) {
+                queue.clear();
+            }
+            return;
+        }
+        Acks acks = new Acks();
+        try {
+            boolean scanTable = publishDirect(shard, acks);
+            commitBatch(shard, acks);
+            if (scanTable) {
+                int permits;
+                List<OutboxMessage> claimed = List.of();
+                while ((permits = circuitBreaker.permits(batchSize)) > 0) {
+                    int limit = permits;
+                    claimed = claimTransaction.execute(status ->
+                            outboxRepository.claimPending(shard, instanceId, leaseUntil(), limit));
+                    metrics.recordBatch(claimed.size());
+                    List<OutboxMessage> toPublish = new ArrayList<>(claimed.size());
+                    for (OutboxMessage message : claimed) {
+                        if (routes.forEventType(message.eventType()) != null) {
+                            toPublish.add(message);
+                        } else {
+                            acks.unroutable.add(message);
+                        }
+                    }
+                    // el payload solo se lee para las filas que realmente se publican
+                    List<OutboxMessage> loaded = outboxRepository.loadPayloads(toPublish);
+                    for (OutboxMessage message : loaded) {
+                        publish(message, routes.forEventType(message.eventType()), acks);
+                    }
+                    commitBatch(shard, acks);
+                    if (loaded.isEmpty()) {
+                        circuitBreaker.releaseProbe();
+                    }
+                    flush(shard, acks); // lo que el broker ya confirmó mientras seguimos enviando
+                    if (claimed.size() < limit
+                            || !outboxRepository.acquireShard(shard, instanceId, leaseUntil())) {
+                        break;
+                    }
+                }
+            }
+            acks.awaitAll();
+            flush(shard, acks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Failed to drain outbox shard {}", shard, e);
+        } finally {
+            outboxRepository.releaseShard(shard, instanceId);
+        }
+    }
+
+    /**
+     * Fast path: publica desde memoria los mensajes recién confirmados del shard.
+     * @return true si igualmente hay que escanear la tabla (sin fast path o algún mensaje no reclamado)
+     */
+    private boolean publishDirect(int shard, Acks acks) throws InterruptedException {
+        Queue<OutboxMessage> queue = directMessages.get(shard);
+        boolean direct = false;
+        boolean allClaimed = true;
+        OutboxMessage message;
+        while (queue != null && (message = queue.poll()) != null) {
+            direct = true;
+            if (circuitBreaker.permits(1) == 0) {
+                queue.clear(); // las filas siguen PENDING; se drenan al cerrarse el breaker
+                return true;
+            }
+            UUID id = message.id();
+            if (Boolean.TRUE.equals(claimTransaction.execute(status ->
+                    outboxRepository.claim(id, instanceId, leaseUntil())))) {
+                publish(message, routes.forEventType(message.eventType()), acks);
+                continue;
+            }
+            circuitBreaker.releaseProbe();
+            allClaimed = false;
+        }
+        return !direct || !allClaimed;
+    }
+
+    private void publish(OutboxMessage message, IntegrationEventRoute route, Acks acks) throws InterruptedException {
+        if (transactional) {
+            acks.batch.add(message); // se envía entero en commitBatch
+            return;
+        }
+        inFlightPermits.acquire();
+        inFlight.incrementAndGet();
+        CompletableFuture<Void> ack = messagePublisher.publish(toMessage(message, route))
+                .whenComplete((ok, ex) -> {
+                    inFlight.decrementAndGet();
+                    inFlightPermits.release();
+                    if (ex != null) {
+                        circuitBreaker.recordFailure();
+                        acks.failed.add(new Failure(message, ex));
+                    } else {
+                        circuitBreaker.recordSuccess();
+                        metrics.recordAck(message);
+                        acks.processed.add(message.id());
+                    }
+                });
+        acks.pending.add(ack);
+    }
 
-        for (OutboxMessage message : pendingMessages) {
-           if (!message.eventType().endsWith("IntegrationEvent")) {
-                outboxRepository.markProcessed(message.id()); // no lo publiques
-            continue;
+    /**
+     * Modo transaccional: publica el lote acumulado en una sola transacción Kafka. El estado en la
+     * base se actualiza después (flush), solo para lo que el producer ya commiteó; si el proceso cae
+     * entre ambos pasos, el lote se reenvía al vencer el lease.
+     */
+    private void commitBatch(int shard, Acks acks) {
+        if (acks.batch.isEmpty()) {
+            return;
+        }
+        List<MessagePublisher.Message> records = new ArrayList<>(acks.batch.size());
+        for (OutboxMessage message : acks.batch) {
+            records.add(toMessage(message, routes.forEventType(message.eventType())));
+        }
+        try {
+            messagePublisher.publishAtomically(transactionalIdPrefix + shard, records);
+            circuitBreaker.recordSuccess();
+            for (OutboxMessage message : acks.batch) {
+                metrics.recordAck(message);
+                acks.processed.add(message.id());
             }
-            try {
-                String topic = message.aggregateType() + "." + message.eventType();
-                messagePublisher.publish(topic, message.payload());
-                outboxRepository.markProcessed(message.id());
-            } catch (Exception e) {
-                log.error("Failed to publish outbox message {}", message.id(), e);
-                outboxRepository.markFailed(message.id());
+        } catch (Exception e) {
+            circuitBreaker.recordFailure();
+            for (OutboxMessage message : acks.batch) {
+                acks.failed.add(new Failure(message, e));
             }
+        } finally {
+            acks.batch.clear();
+        }
+    }
+
+    private static MessagePublisher.Message toMessage(OutboxMessage message, IntegrationEventRoute route) {
+        return new MessagePublisher.Message(route.topic(), message.messageKey(), message.payload(),
+                new MessagePublisher.Metadata(route.eventType(), route.schemaVersion(), message.aggregateId(),
+                        message.id(), message.createdAt(), message.traceId()));
+    }
+
+    private void flush(int shard, Acks acks) {
+        List<UUID> processed = drain(acks.processed);
+        List<Failure> failures = new ArrayList<>();
+        Failure failure;
+        while ((failure = acks.failed.poll()) != null) {
+            failures.add(failure);
+        }
+        List<OutboxMessage> unroutable = new ArrayList<>(acks.unroutable);
+        acks.unroutable.clear();
+        if (processed.isEmpty() && failures.isEmpty() && unroutable.isEmpty()) {
+            return;
+        }
+        Instant nextRetry = transactionTemplate.execute(status -> {
+            outboxRepository.markProcessed(processed);
+            for (OutboxMessage message : unroutable) {
+                // fila escrita por una versión anterior cuyo tipo ya no tiene ruta
+                log.error("Outbox message {} has no integration route for {}", message.id(), message.eventType());
+                outboxRepository.deadLetter(message.id(), message.attempts(),
+                        "No integration route for " + message.eventType());
+            }
+            return retryOrDeadLetter(failures);
+        });
+        if (nextRetry != null) {
+            taskScheduler.schedule(() -> schedule(shard), nextRetry);
+        }
+    }
+
+    /** @return el primer instante de reintento programado, o null si no hay ninguno */
+    private Instant retryOrDeadLetter(List<Failure> failures) {
+        if (failures.isEmpty()) {
+            return null;
+        }
+        // jitter por mensaje: solo comparten UPDATE los que caen en el mismo ms con igual intento
+        Instant now = Instant.now();
+        Map<Retry, List<UUID>> retries = new HashMap<>();
+        for (Failure failure : failures) {
+            int attempts = failure.message().attempts() + 1;
+            if (retryPolicy.isExhausted(attempts)) {
+                log.error("Outbox message {} dead-lettered after {} attempts", failure.message().id(), attempts,
+                        failure.error());
+                outboxRepository.deadLetter(failure.message().id(), attempts, describe(failure.error()));
+            } else {
+                Retry retry = new Retry(attempts, now.plus(retryPolicy.delayFor(attempts)));
+                retries.computeIfAbsent(retry, r -> new ArrayList<>()).add(failure.message().id());
+            }
+        }
+        log.warn("{} outbox messages failed to publish, {} scheduled for retry",
+                failures.size(), retries.values().stream().mapToInt(List::size).sum());
+        Instant earliest = null;
+        for (Map.Entry<Retry, List<UUID>> retry : retries.entrySet()) {
+            Instant next = retry.getKey().nextAttemptAt();
+            outboxRepository.scheduleRetry(retry.getValue(), retry.getKey().attempts(), next);
+            earliest = (earliest == null || next.isBefore(earliest)) ? next : earliest;
+        }
+        return earliest;
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(error);
+        String text = cause.getClass().getName() + ": " + cause.getMessage();
+        return text.length() > 2000 ? text.substring(0, 2000) : text;
+    }
+
+    private static List<UUID> drain(Queue<UUID> queue) {
+        List<UUID> ids = new ArrayList<>();
+        UUID id;
+        while ((id = queue.poll()) != null) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private Instant leaseUntil() {
+        return Instant.now().plusMillis(leaseMs);
+    }
+
+    private record Failure(OutboxMessage message, Throwable error) {
+    }
+
+    private record Retry(int attempts, Instant nextAttemptAt) {
+    }
+
+    /** Acks del broker acumulados durante el drenado de un shard. */
+    private static final class Acks {
+        private final Queue<UUID> processed = new ConcurrentLinkedQueue<>();
+        private final Queue<Failure> failed = new ConcurrentLinkedQueue<>();
+        /** Solo los toca el worker que drena el shard. */
+        private final List<OutboxMessage> unroutable = new ArrayList<>();
+        private final List<OutboxMessage> batch = new ArrayList<>();
+        private final List<CompletableFuture<Void>> pending = new ArrayList<>();
+
+        void awaitAll() {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new))
+                    .exceptionally(ex -> null) // los fallos ya quedaron en 'failed'
+                    .join();
         }
     }
 }
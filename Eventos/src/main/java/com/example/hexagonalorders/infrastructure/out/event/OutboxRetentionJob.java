@@ -0,0 +1,64 @@
+package com.example.hexagonalorders.infrastructure.out.event;
+
+import com.example.hexagonalorders.domain.port.out.OutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Retención del outbox: borra (o archiva y borra) las filas PROCESSED/FAILED más viejas que
+ * {@code outbox.retention.max-age}, por lotes y con pausa entre lotes para no competir con el
+ * tráfico normal. Así el tamaño de la tabla sigue al backlog pendiente y no a su historia.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "outbox.retention.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRetentionJob {
+
+    private final OutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${outbox.retention.max-age:7d}")
+    private Duration maxAge;
+
+    @Value("${outbox.retention.archive:false}")
+    private boolean archive;
+
+    @Value("${outbox.retention.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.retention.pause-ms:200}")
+    private long pauseMs;
+
+    @Value("${outbox.retention.max-batches:100}")
+    private int maxBatches;
+
+    @Scheduled(fixedDelayString = "${outbox.retention.interval-ms:600000}")
+    public void purge() throws InterruptedException {
+        Instant cutoff = Instant.now().minus(maxAge);
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer removed = transactionTemplate.execute(status ->
+                    outboxRepository.purgeCompleted(cutoff, batchSize, archive));
+            if (removed == null || removed == 0) {
+                break;
+            }
+            total += removed;
+            if (removed < batchSize) {
+                break;
+            }
+            Thread.sleep(pauseMs);
+        }
+        if (total > 0) {
+            log.info("Outbox retention {} {} messages older than {}", archive ? "archived" : "deleted", total, cutoff);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.hexagonalorders.infrastructure.out.event;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Backoff exponencial con jitter para reintentos de publicación del outbox.
+ * El retardo del intento n es un valor aleatorio entre la mitad y el total de
+ * {@code min(max-delay, initial-delay * 2^(n-1))}, para que las filas que fallaron juntas
+ * no vuelvan todas al mismo tiempo cuando el broker se recupera.
+ */
+@Component
+public class OutboxRetryPolicy {
+
+    @Value("${outbox.retry.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.retry.initial-delay:1s}")
+    private Duration initialDelay;
+
+    @Value("${outbox.retry.max-delay:5m}")
+    private Duration maxDelay;
+
+    /** @return true si tras {@code attempts} intentos fallidos el mensaje va al dead-letter */
+    public boolean isExhausted(int attempts) {
+        return attempts >= maxAttempts;
+    }
+
+    public Duration delayFor(int attempts) {
+        long cap = maxDelay.toMillis();
+        long exp = initialDelay.toMillis() << Math.min(attempts - 1, 30);
+        long delay = (exp <= 0 || exp > cap) ? cap : exp;
+        return Duration.ofMillis(delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.hexagonalorders.infrastructure.out.messaging;
+
+import com.example.hexagonalorders.domain.port.out.MessagePublisher;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+
+import java.nio.charset.StandardCharsets;
+
+/** Headers con la metadata del evento; los valores van como texto UTF-8. */
+public final class EventHeaders {
+
+    public static final String EVENT_TYPE = "event-type";
+    public static final String SCHEMA_VERSION = "schema-version";
+    public static final String AGGREGATE_ID = "aggregate-id";
+    public static final String EVENT_ID = "event-id";
+    public static final String OCCURRED_AT = "occurred-at";
+    public static final String TRACE_ID = "trace-id";
+
+    private EventHeaders() {
+    }
+
+    static Headers of(MessagePublisher.Metadata metadata) {
+        RecordHeaders headers = new RecordHeaders();
+        add(headers, EVENT_TYPE, metadata.eventType());
+        add(headers, SCHEMA_VERSION, Integer.toString(metadata.schemaVersion()));
+        add(headers, AGGREGATE_ID, metadata.aggregateId().toString());
+        add(headers, EVENT_ID, metadata.eventId().toString());
+        add(headers, OCCURRED_AT, metadata.occurredAt().toString());
+        if (metadata.traceId() != null) {
+            add(headers, TRACE_ID, metadata.traceId());
+        }
+        return headers;
+    }
+
+    private static void add(RecordHeaders headers, String name, String value) {
+        headers.add(name, value.getBytes(StandardCharsets.UTF_8));
+    }
+}
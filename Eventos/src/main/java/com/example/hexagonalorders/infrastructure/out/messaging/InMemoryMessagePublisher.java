@@ -0,0 +1,75 @@
+package com.example.hexagonalorders.infrastructure.out.messaging;
+
+import com.example.hexagonalorders.domain.port.out.MessagePublisher;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Broker en memoria para el perfil benchmark: reemplaza a Kafka dentro del mismo proceso.
+ * Cada clave cae siempre en la misma "partición" (un hilo), así se conserva el orden por clave
+ * como en Kafka. El envío se confirma al encolarse, igual que un ack del broker.
+ */
+@Slf4j
+@Component
+@Profile("benchmark")
+public class InMemoryMessagePublisher implements MessagePublisher {
+
+    private final Map<String, List<Consumer<String>>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService[] partitions;
+
+    public InMemoryMessagePublisher(@Value("${benchmark.broker.partitions:6}") int partitionCount) {
+        partitions = new ExecutorService[partitionCount];
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("in-memory-partition-");
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = Executors.newSingleThreadExecutor(threadFactory);
+        }
+    }
+
+    /** Registra un consumidor del tópico; recibe el payload en el hilo de la partición. */
+    public void subscribe(String topic, Consumer<String> listener) {
+        subscribers.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @Override
+    public CompletableFuture<Void> publish(Message message) {
+        String topic = message.topic();
+        String payload = message.payload();
+        List<Consumer<String>> listeners = subscribers.getOrDefault(topic, List.of());
+        int partition = message.key() == null ? 0 : Math.floorMod(message.key().hashCode(), partitions.length);
+        partitions[partition].execute(() -> {
+            for (Consumer<String> listener : listeners) {
+                try {
+                    listener.accept(payload);
+                } catch (Exception e) {
+                    log.warn("In-memory consumer of {} failed: {}", topic, e.getMessage());
+                }
+            }
+        });
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void publishAtomically(String transactionScope, List<Message> messages) {
+        messages.forEach(this::publish);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (ExecutorService partition : partitions) {
+            partition.shutdownNow();
+        }
+    }
+}
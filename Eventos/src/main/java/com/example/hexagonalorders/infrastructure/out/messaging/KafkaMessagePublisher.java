@@ -1,51 +1,149 @@
 package com.example.hexagonalorders.infrastructure.out.messaging;
 
 import com.example.hexagonalorders.domain.port.out.MessagePublisher;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.errors.AuthorizationException;
+import org.apache.kafka.common.errors.OutOfOrderSequenceException;
+import org.apache.kafka.common.errors.ProducerFencedException;
+import org.springframework.context.annotation.Profile;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
+@Profile("!benchmark") // en benchmark publica InMemoryMessagePublisher
 public class KafkaMessagePublisher implements MessagePublisher {
 
     private final KafkaTemplate<String,String> kafkaTemplate;
-    private final TopicNameMapper topicNameMapper;
+    private final ProducerFactory<String,String> producerFactory;
+    private final Timer sendOk;
+    private final Timer sendFailed;
+    /**
+     * Un producer transaccional por scope, con transactional.id fijo (no el sufijo incremental de
+     * DefaultKafkaProducerFactory) para que el nuevo dueño de un shard fence al anterior.
+     */
+    private final Map<String, Producer<String,String>> transactionalProducers = new ConcurrentHashMap<>();
 
+    public KafkaMessagePublisher(KafkaTemplate<String,String> kafkaTemplate,
+                                 ProducerFactory<String,String> producerFactory,
+                                 MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.producerFactory = producerFactory;
+        this.sendOk = sendTimer(meterRegistry, "success");
+        this.sendFailed = sendTimer(meterRegistry, "failure");
+    }
+
+    private static Timer sendTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("outbox.publish.latency")
+                .description("Kafka send latency until the broker ack")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofMinutes(1))
+                .register(meterRegistry);
+    }
+
+    /** El tópico y la clave llegan ya resueltos desde la tabla de ruteo; la metadata va en headers. */
     @Override
-    public void publish(String topic, String payload) {
+    public CompletableFuture<Void> publish(Message message) {
+        long start = System.nanoTime();
+        String topic = message.topic();
         try {
-            String[] parts = topic.split("\\.");
-            if (parts.length != 2) {
-                throw new IllegalArgumentException("Topic debe ser 'Aggregate.EventType' (recibido: " + topic + ")");
-            }
-            String aggregate = parts[0];
-            String eventType = parts[1];
-
-            String kafkaTopic = topicNameMapper.mapToTopicName(aggregate, eventType);
-
-            CompletableFuture<SendResult<String,String>> fut = kafkaTemplate.send(kafkaTopic, eventType, payload);
-            fut.whenComplete((res, ex) -> {
-                if (ex != null) {
-                    log.error("Kafka publish failed to {}: {}", kafkaTopic, ex.getMessage(), ex);
-                } else {
-                    log.debug("Kafka publish OK topic={} partition={} offset={}",
-                            kafkaTopic,
-                            res.getRecordMetadata().partition(),
-                            res.getRecordMetadata().offset());
-                }
-            });
-
-            log.info("Published integration event to Kafka topic='{}' (aggregate={}, eventType={})",
-                    kafkaTopic, aggregate, eventType);
+            return kafkaTemplate.send(toRecord(message))
+                    .whenComplete((res, ex) -> {
+                        (ex != null ? sendFailed : sendOk).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        if (ex != null) {
+                            // el outbox agrega los fallos y los reintenta; aquí solo detalle
+                            log.debug("Kafka publish failed to {}: {}", topic, ex.getMessage());
+                        } else {
+                            log.debug("Kafka publish OK topic={} partition={} offset={}",
+                                    topic,
+                                    res.getRecordMetadata().partition(),
+                                    res.getRecordMetadata().offset());
+                        }
+                    })
+                    .thenApply(res -> null);
 
         } catch (Exception e) {
-            throw new RuntimeException("Failed to publish message to Kafka", e);
+            return CompletableFuture.failedFuture(new RuntimeException("Failed to publish message to Kafka", e));
+        }
+    }
+
+    /** Cada scope lo usa un solo worker a la vez (el que tiene el lease del shard). */
+    @Override
+    public void publishAtomically(String transactionScope, List<Message> messages) {
+        long start = System.nanoTime();
+        Producer<String,String> producer = transactionalProducers.get(transactionScope);
+        if (producer == null) {
+            // fuera de computeIfAbsent: initTransactions bloquea hasta hablar con el coordinador
+            producer = createTransactionalProducer(transactionScope);
+            transactionalProducers.put(transactionScope, producer);
         }
+        try {
+            producer.beginTransaction();
+            for (Message message : messages) {
+                producer.send(toRecord(message));
+            }
+            producer.commitTransaction(); // espera los acks de todo el lote
+            sendOk.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (ProducerFencedException | OutOfOrderSequenceException | AuthorizationException e) {
+            // errores fatales: el producer no se puede reutilizar
+            sendFailed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            discard(transactionScope, producer);
+            throw new RuntimeException("Kafka transaction failed for " + transactionScope, e);
+        } catch (KafkaException e) {
+            sendFailed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            try {
+                producer.abortTransaction();
+            } catch (KafkaException abortError) {
+                discard(transactionScope, producer);
+            }
+            throw new RuntimeException("Kafka transaction aborted for " + transactionScope, e);
+        }
+    }
+
+    private static ProducerRecord<String,String> toRecord(Message message) {
+        return new ProducerRecord<>(message.topic(), null, message.key(), message.payload(),
+                EventHeaders.of(message.metadata()));
+    }
+
+    private Producer<String,String> createTransactionalProducer(String transactionalId) {
+        Map<String,Object> cfg = new HashMap<>(producerFactory.getConfigurationProperties());
+        cfg.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, transactionalId);
+        KafkaProducer<String,String> producer = new KafkaProducer<>(cfg);
+        try {
+            producer.initTransactions(); // fence de productores previos con el mismo id
+        } catch (KafkaException e) {
+            producer.close(Duration.ZERO);
+            throw e;
+        }
+        return producer;
+    }
+
+    private void discard(String transactionScope, Producer<String,String> producer) {
+        transactionalProducers.remove(transactionScope, producer);
+        producer.close(Duration.ZERO);
+    }
+
+    @PreDestroy
+    void closeTransactionalProducers() {
+        transactionalProducers.values().forEach(producer -> producer.close(Duration.ofSeconds(5)));
+        transactionalProducers.clear();
     }
 }
@@ -0,0 +1,84 @@
+package com.example.hexagonalorders.infrastructure.out.messaging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Circuit breaker alrededor del publicador de Kafka.
+ * Tras {@code failure-threshold} fallos consecutivos se abre y el outbox deja de drenar;
+ * pasado {@code open-duration} deja pasar un único mensaje de prueba: si se confirma se cierra,
+ * si falla vuelve a abrirse. Evita que una caída del broker se convierta en un bucle caliente.
+ */
+@Slf4j
+@Component
+public class PublisherCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    @Value("${outbox.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${outbox.circuit-breaker.open-duration:10s}")
+    private Duration openDuration;
+
+    private volatile State state = State.CLOSED;
+    private volatile long openedAt;
+    private int consecutiveFailures;
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+    private volatile Runnable onClose = () -> { };
+
+    /** Acción a ejecutar cuando el breaker vuelve a cerrarse (p. ej. reanudar el drenado). */
+    public void onClose(Runnable onClose) {
+        this.onClose = onClose;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    /**
+     * Cuántos mensajes se pueden enviar ahora, como máximo {@code requested}.
+     * Cerrado: todos; abierto: ninguno; a prueba: uno solo, y solo a un llamador.
+     */
+    public int permits(int requested) {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openDuration.toMillis()) {
+            state = State.HALF_OPEN;
+        }
+        return switch (state) {
+            case CLOSED -> requested;
+            case OPEN -> 0;
+            case HALF_OPEN -> probeInFlight.compareAndSet(false, true) ? 1 : 0;
+        };
+    }
+
+    /** Devuelve el permiso de prueba si al final no se envió nada con él. */
+    public void releaseProbe() {
+        probeInFlight.set(false);
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight.set(false);
+        if (state != State.CLOSED) {
+            state = State.CLOSED;
+            log.info("Kafka publisher circuit breaker closed, resuming outbox drain");
+            onClose.run();
+        }
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        probeInFlight.set(false);
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            if (state == State.CLOSED) {
+                log.warn("Kafka publisher circuit breaker opened after {} consecutive failures", consecutiveFailures);
+            }
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+}
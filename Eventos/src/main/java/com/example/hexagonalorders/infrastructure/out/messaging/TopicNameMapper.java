@@ -5,7 +5,10 @@ import org.springframework.stereotype.Component;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
-/** Convierte "Aggregate.EventType" -> nombre real de tópico Kafka con prefijo/ambiente. */
+/**
+ * Convierte "Aggregate.EventType" -> nombre real de tópico Kafka con prefijo/ambiente.
+ * Solo se usa al arrancar, para armar la tabla de ruteo.
+ */
 @Component
 public class TopicNameMapper {
 
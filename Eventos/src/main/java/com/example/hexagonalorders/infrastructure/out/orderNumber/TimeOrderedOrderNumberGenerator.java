@@ -0,0 +1,22 @@
+package com.example.hexagonalorders.infrastructure.out.orderNumber;
+
+import com.example.hexagonalorders.domain.model.TimeOrderedIds;
+import com.example.hexagonalorders.domain.model.valueobject.OrderNumber;
+import com.example.hexagonalorders.domain.port.out.OrderNumberGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Números de orden UUIDv7 en Crockford base32 (26 caracteres, ordenados por tiempo).
+ * El índice único de orders.order_number crece por el final en lugar de recibir claves al azar,
+ * y el aggregate id del outbox se obtiene decodificando el número, sin hash.
+ * Generador por defecto; {@code orders.number.generator=uuid} vuelve a {@link UuidOrderNumberGenerator}.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.number.generator", havingValue = "time-ordered", matchIfMissing = true)
+public class TimeOrderedOrderNumberGenerator implements OrderNumberGenerator {
+    @Override
+    public OrderNumber generate() {
+        return new OrderNumber(TimeOrderedIds.newCompactId());
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.hexagonalorders.infrastructure.out.persistence.codec;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/** JSON tal cual en UTF-8: legible desde la consola de H2. */
+@Component
+public class JsonPayloadCodec implements OutboxPayloadCodec {
+
+    public static final String ID = "json";
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    @Override
+    public byte[] encode(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String decode(byte[] data) {
+        return new String(data, StandardCharsets.UTF_8);
+    }
+}
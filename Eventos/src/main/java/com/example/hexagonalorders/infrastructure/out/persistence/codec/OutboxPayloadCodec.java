@@ -0,0 +1,14 @@
+package com.example.hexagonalorders.infrastructure.out.persistence.codec;
+
+/**
+ * Codifica el payload JSON de una fila del outbox a los bytes que se guardan en la tabla.
+ * El id del codec se guarda junto a cada fila, así se pueden leer filas escritas con otro codec.
+ */
+public interface OutboxPayloadCodec {
+
+    String id();
+
+    byte[] encode(String json);
+
+    String decode(byte[] data);
+}
@@ -0,0 +1,35 @@
+package com.example.hexagonalorders.infrastructure.out.persistence.codec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/** Registro de codecs: escribe con el configurado y lee con el que indique cada fila. */
+@Component
+public class OutboxPayloadCodecs {
+
+    private final Map<String, OutboxPayloadCodec> byId;
+    private final OutboxPayloadCodec writeCodec;
+
+    public OutboxPayloadCodecs(List<OutboxPayloadCodec> codecs,
+                               @Value("${outbox.payload.codec:" + JsonPayloadCodec.ID + "}") String writeCodecId) {
+        this.byId = codecs.stream().collect(Collectors.toMap(OutboxPayloadCodec::id, Function.identity()));
+        this.writeCodec = forId(writeCodecId);
+    }
+
+    public OutboxPayloadCodec writeCodec() {
+        return writeCodec;
+    }
+
+    public OutboxPayloadCodec forId(String id) {
+        OutboxPayloadCodec codec = byId.get(id);
+        if (codec == null) {
+            throw new IllegalArgumentException("Unknown outbox payload codec: " + id);
+        }
+        return codec;
+    }
+}
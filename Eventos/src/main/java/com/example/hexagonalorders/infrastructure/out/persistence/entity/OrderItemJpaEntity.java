@@ -6,8 +6,10 @@ import java.math.BigDecimal;
 @Entity
 @Table(name = "order_items")
 public class OrderItemJpaEntity {
+    // Más holgado que orders_seq: una orden grande consume decenas de ids de items
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 200)
     private Long id;
     
     @Column(nullable = false)
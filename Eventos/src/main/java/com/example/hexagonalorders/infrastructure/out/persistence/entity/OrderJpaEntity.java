@@ -8,8 +8,10 @@ import java.util.List;
 @Entity
 @Table(name = "orders")
 public class OrderJpaEntity {
+    // Secuencia pooled: un round-trip reserva allocationSize ids y los INSERT quedan libres para el batching JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, unique = true)
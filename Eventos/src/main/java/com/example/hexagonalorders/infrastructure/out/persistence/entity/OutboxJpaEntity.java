@@ -1,6 +1,7 @@
 package com.example.hexagonalorders.infrastructure.out.persistence.entity;
 
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
 
 import java.time.Instant;
 import java.util.UUID;
@@ -8,9 +9,13 @@ import java.util.UUID;
 @Entity
 @Table(name = "outbox",
        indexes = {
-           @Index(name = "idx_outbox_idempotency", columnList = "aggregate_id, event_type, created_at")
+           @Index(name = "idx_outbox_idempotency", columnList = "aggregate_id, event_type, created_at"),
+           // scan de pendientes: DISTINCT shard WHERE status y claim por shard ORDER BY created_at
+           @Index(name = "idx_outbox_pending_scan", columnList = "status, shard, created_at"),
+           // retención: filas PROCESSED/FAILED más viejas que el corte
+           @Index(name = "idx_outbox_retention", columnList = "status, processed_at")
        })
-public class OutboxJpaEntity {
+public class OutboxJpaEntity implements Persistable<UUID> {
 
     @Id
     @Column(name = "id")
@@ -25,9 +30,19 @@ public class OutboxJpaEntity {
     @Column(name = "event_type", nullable = false)
     private String eventType;
 
-    @Lob
-    @Column(name = "payload", nullable = false)
-    private String payload;
+    // clave del record Kafka (número de orden): fija la partición y el orden por aggregate
+    @Column(name = "message_key")
+    private String messageKey;
+
+    @Column(name = "trace_id", length = 64)
+    private String traceId;
+
+    // bytes en línea (no LOB) según outbox.payload.codec
+    @Column(name = "payload", nullable = false, length = 1_000_000)
+    private byte[] payload;
+
+    @Column(name = "payload_codec", nullable = false, length = 32)
+    private String payloadCodec;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
@@ -39,14 +54,41 @@ public class OutboxJpaEntity {
     @Column(name = "processed_at")
     private Instant processedAt;
 
+    @Column(name = "shard", nullable = false)
+    private int shard;
+
+    @Column(name = "claimed_by")
+    private String claimedBy;
+
+    @Column(name = "lease_until")
+    private Instant leaseUntil;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    // el id viene asignado: sin esto save() haría merge (SELECT previo) en vez de persist
+    @Transient
+    private boolean isNew = true;
+
     public enum OutboxStatusJpa {
         PENDING, PROCESSED, FAILED
     }
 
     // Getters y setters
+    @Override
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
 
+    @Override
+    public boolean isNew() { return isNew; }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() { this.isNew = false; }
+
     public String getAggregateType() { return aggregateType; }
     public void setAggregateType(String aggregateType) { this.aggregateType = aggregateType; }
 
@@ -56,8 +98,17 @@ public class OutboxJpaEntity {
     public String getEventType() { return eventType; }
     public void setEventType(String eventType) { this.eventType = eventType; }
 
-    public String getPayload() { return payload; }
-    public void setPayload(String payload) { this.payload = payload; }
+    public String getMessageKey() { return messageKey; }
+    public void setMessageKey(String messageKey) { this.messageKey = messageKey; }
+
+    public String getTraceId() { return traceId; }
+    public void setTraceId(String traceId) { this.traceId = traceId; }
+
+    public byte[] getPayload() { return payload; }
+    public void setPayload(byte[] payload) { this.payload = payload; }
+
+    public String getPayloadCodec() { return payloadCodec; }
+    public void setPayloadCodec(String payloadCodec) { this.payloadCodec = payloadCodec; }
 
     public OutboxStatusJpa getStatus() { return status; }
     public void setStatus(OutboxStatusJpa status) { this.status = status; }
@@ -67,4 +118,19 @@ public class OutboxJpaEntity {
 
     public Instant getProcessedAt() { return processedAt; }
     public void setProcessedAt(Instant processedAt) { this.processedAt = processedAt; }
+
+    public int getShard() { return shard; }
+    public void setShard(int shard) { this.shard = shard; }
+
+    public String getClaimedBy() { return claimedBy; }
+    public void setClaimedBy(String claimedBy) { this.claimedBy = claimedBy; }
+
+    public Instant getLeaseUntil() { return leaseUntil; }
+    public void setLeaseUntil(Instant leaseUntil) { this.leaseUntil = leaseUntil; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public Instant getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(Instant nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
 }
@@ -0,0 +1,17 @@
+package com.example.hexagonalorders.infrastructure.out.persistence.entity;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** Proyección de una fila del outbox sin el payload, para el scan de pendientes. */
+public record OutboxMessageHeader(
+    UUID id,
+    String aggregateType,
+    UUID aggregateId,
+    String eventType,
+    String messageKey,
+    String traceId,
+    Instant createdAt,
+    int attempts
+) {
+}
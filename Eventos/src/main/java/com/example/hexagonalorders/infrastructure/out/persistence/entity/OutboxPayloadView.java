@@ -0,0 +1,7 @@
+package com.example.hexagonalorders.infrastructure.out.persistence.entity;
+
+import java.util.UUID;
+
+/** Payload codificado de una fila del outbox junto con el codec con el que se escribió. */
+public record OutboxPayloadView(UUID id, String codec, byte[] payload) {
+}
@@ -0,0 +1,39 @@
+package com.example.hexagonalorders.infrastructure.out.persistence.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Lease de un shard del outbox. Solo el dueño del lease drena las filas de ese shard,
+ * lo que mantiene el orden por aggregate aunque haya varias instancias/hilos.
+ */
+@Entity
+@Table(name = "outbox_shard_lease")
+public class OutboxShardLeaseJpaEntity {
+
+    @Id
+    @Column(name = "shard")
+    private Integer shard;
+
+    @Column(name = "owner")
+    private String owner;
+
+    @Column(name = "lease_until")
+    private Instant leaseUntil;
+
+    public OutboxShardLeaseJpaEntity() {}
+
+    public OutboxShardLeaseJpaEntity(Integer shard) {
+        this.shard = shard;
+    }
+
+    public Integer getShard() { return shard; }
+    public void setShard(Integer shard) { this.shard = shard; }
+
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+
+    public Instant getLeaseUntil() { return leaseUntil; }
+    public void setLeaseUntil(Instant leaseUntil) { this.leaseUntil = leaseUntil; }
+}
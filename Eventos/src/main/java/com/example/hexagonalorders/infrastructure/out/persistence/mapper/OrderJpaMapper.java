@@ -36,7 +36,7 @@ public class OrderJpaMapper {
                 .map(this::toDomain)
                 .collect(Collectors.toList());
 
-        return new Order(
+        return Order.rehydrate(
                 new OrderNumber(jpaEntity.getOrderNumber()),
                 jpaEntity.getCustomerId(),
                 jpaEntity.getOrderDate(),
@@ -51,7 +51,7 @@ public class OrderJpaMapper {
                 .collect(Collectors.toList());
     }
 
-    private OrderItemJpaEntity toJpaEntity(OrderItem item) {
+    public OrderItemJpaEntity toJpaEntity(OrderItem item) {
         OrderItemJpaEntity jpaEntity = new OrderItemJpaEntity();
         jpaEntity.setProductNumber(item.getProductNumber().value());
         jpaEntity.setQuantity(item.getQuantity().value());
@@ -67,7 +67,7 @@ public class OrderJpaMapper {
         );
     }
 
-    private com.example.hexagonalorders.infrastructure.out.persistence.entity.OrderStatus toJpaOrderStatus(OrderStatus status) {
+    public com.example.hexagonalorders.infrastructure.out.persistence.entity.OrderStatus toJpaOrderStatus(OrderStatus status) {
         return com.example.hexagonalorders.infrastructure.out.persistence.entity.OrderStatus.valueOf(status.name());
     }
 
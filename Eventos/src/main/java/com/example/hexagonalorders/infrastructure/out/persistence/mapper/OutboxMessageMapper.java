@@ -1,42 +1,48 @@
 package com.example.hexagonalorders.infrastructure.out.persistence.mapper;
 
 import com.example.hexagonalorders.domain.model.OutboxMessage;
+import com.example.hexagonalorders.infrastructure.out.persistence.codec.OutboxPayloadCodec;
 import com.example.hexagonalorders.infrastructure.out.persistence.entity.OutboxJpaEntity;
 import com.example.hexagonalorders.infrastructure.out.persistence.entity.OutboxJpaEntity.OutboxStatusJpa;
+import com.example.hexagonalorders.infrastructure.out.persistence.entity.OutboxMessageHeader;
 
 public class OutboxMessageMapper {
 
-    public static OutboxJpaEntity toJpaEntity(OutboxMessage message) {
+    public static OutboxJpaEntity toJpaEntity(OutboxMessage message, OutboxPayloadCodec codec) {
         OutboxJpaEntity entity = new OutboxJpaEntity();
         entity.setId(message.id());
         entity.setAggregateType(message.aggregateType());
         entity.setAggregateId(message.aggregateId());
         entity.setEventType(message.eventType());
-        entity.setPayload(message.payload());
+        entity.setMessageKey(message.messageKey());
+        entity.setTraceId(message.traceId());
+        entity.setPayload(codec.encode(message.payload()));
+        entity.setPayloadCodec(codec.id());
         entity.setStatus(mapStatusToJpa(message.status()));
         entity.setCreatedAt(message.createdAt());
         entity.setProcessedAt(message.processedAt());
+        entity.setAttempts(message.attempts());
         return entity;
     }
 
-    public static OutboxMessage toDomainModel(OutboxJpaEntity entity) {
+    /** Mensaje pendiente sin payload; se carga aparte solo si se va a publicar. */
+    public static OutboxMessage toDomainModel(OutboxMessageHeader header) {
         return new OutboxMessage(
-            entity.getId(),
-            entity.getAggregateType(),
-            entity.getAggregateId(),
-            entity.getEventType(),
-            entity.getPayload(),
-            mapStatusToDomain(entity.getStatus()),
-            entity.getCreatedAt(),
-            entity.getProcessedAt()
+            header.id(),
+            header.aggregateType(),
+            header.aggregateId(),
+            header.eventType(),
+            header.messageKey(),
+            header.traceId(),
+            null,
+            OutboxMessage.Status.PENDING,
+            header.createdAt(),
+            null,
+            header.attempts()
         );
     }
 
     private static OutboxStatusJpa mapStatusToJpa(OutboxMessage.Status status) {
         return OutboxStatusJpa.valueOf(status.name());
     }
-
-    private static OutboxMessage.Status mapStatusToDomain(OutboxStatusJpa status) {
-        return OutboxMessage.Status.valueOf(status.name());
-    }
 }
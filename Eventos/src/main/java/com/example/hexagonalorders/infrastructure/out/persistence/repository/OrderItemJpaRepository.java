@@ -0,0 +1,35 @@
+package com.example.hexagonalorders.infrastructure.out.persistence.repository;
+
+import com.example.hexagonalorders.infrastructure.out.persistence.entity.OrderItemJpaEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderItemJpaRepository extends JpaRepository<OrderItemJpaEntity, Long> {
+
+    /** Los items de dominio no tienen id: se identifica la fila por sus valores. */
+    @Query("SELECT i.id FROM OrderItemJpaEntity i WHERE i.order.orderNumber = :orderNumber "
+            + "AND i.productNumber = :productNumber AND i.quantity = :quantity AND i.unitPrice = :unitPrice "
+            + "ORDER BY i.id")
+    List<Long> findMatchingIds(@Param("orderNumber") String orderNumber,
+                               @Param("productNumber") String productNumber,
+                               @Param("quantity") Integer quantity,
+                               @Param("unitPrice") BigDecimal unitPrice,
+                               Pageable pageable);
+
+    /**
+     * Borrado directo en la base: un remove() de la entidad se descarta en el flush si la orden
+     * cargada en el mismo contexto todavía la tiene en su colección (cascade ALL).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM OrderItemJpaEntity i WHERE i.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
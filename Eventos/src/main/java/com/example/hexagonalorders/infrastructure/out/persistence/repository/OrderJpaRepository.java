@@ -1,13 +1,41 @@
 package com.example.hexagonalorders.infrastructure.out.persistence.repository;
 
 import com.example.hexagonalorders.infrastructure.out.persistence.entity.OrderJpaEntity;
+import com.example.hexagonalorders.infrastructure.out.persistence.entity.OrderStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OrderJpaRepository extends JpaRepository<OrderJpaEntity, Long> {
     Optional<OrderJpaEntity> findByOrderNumber(String orderNumber);
     void deleteByOrderNumber(String orderNumber);
+
+    /** Órdenes con sus items en una sola consulta (join fetch). */
+    @EntityGraph(attributePaths = "items")
+    List<OrderJpaEntity> findByOrderNumberIn(Collection<String> orderNumbers);
+
+    @Query("SELECT o.id FROM OrderJpaEntity o WHERE o.orderNumber = :orderNumber")
+    Optional<Long> findIdByOrderNumber(@Param("orderNumber") String orderNumber);
+
+    /** Transición condicional: 0 filas si otra transacción ya cambió el status. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OrderJpaEntity o SET o.status = :status WHERE o.orderNumber = :orderNumber AND o.status = :expected")
+    int updateStatus(@Param("orderNumber") String orderNumber,
+                     @Param("expected") OrderStatus expected,
+                     @Param("status") OrderStatus status);
+
+    /** Igual que updateStatus para varias órdenes: devuelve cuántas seguían en expected. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OrderJpaEntity o SET o.status = :status WHERE o.orderNumber IN :orderNumbers AND o.status = :expected")
+    int updateStatusIn(@Param("orderNumbers") Collection<String> orderNumbers,
+                       @Param("expected") OrderStatus expected,
+                       @Param("status") OrderStatus status);
 } 
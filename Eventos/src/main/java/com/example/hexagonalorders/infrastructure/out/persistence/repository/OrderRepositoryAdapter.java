@@ -1,43 +1,130 @@
 package com.example.hexagonalorders.infrastructure.out.persistence.repository;
 
 import com.example.hexagonalorders.domain.model.Order;
+import com.example.hexagonalorders.domain.model.OrderItem;
+import com.example.hexagonalorders.domain.model.OrderStatus;
 import com.example.hexagonalorders.domain.model.valueobject.OrderNumber;
 import com.example.hexagonalorders.domain.port.out.OrderRepository;
+import com.example.hexagonalorders.infrastructure.out.persistence.entity.OrderItemJpaEntity;
 import com.example.hexagonalorders.infrastructure.out.persistence.entity.OrderJpaEntity;
 import com.example.hexagonalorders.infrastructure.out.persistence.mapper.OrderJpaMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+/**
+ * Una orden nueva se inserta entera. Una ya persistida escribe solo lo que cambió desde la carga:
+ * la transición de status es un UPDATE condicional y los items agregados/quitados se insertan o
+ * borran de a uno, sin re-mergear el aggregate completo. {@link #saveAll} hace lo mismo para un
+ * lote: las nuevas van en un solo saveAll (inserts en batch) y las transiciones de status iguales
+ * comparten un UPDATE condicional.
+ */
 @Component
 @RequiredArgsConstructor
 public class OrderRepositoryAdapter implements OrderRepository {
 
     private final OrderJpaRepository orderJpaRepository;
+    private final OrderItemJpaRepository orderItemJpaRepository;
     private final OrderJpaMapper orderJpaMapper;
 
     @Override
     public Order save(Order order) {
-        // Mapear dominio -> entidad JPA
-        OrderJpaEntity entity = orderJpaMapper.toEntity(order);
+        if (!order.isPersisted()) {
+            orderJpaRepository.save(orderJpaMapper.toEntity(order));
+        } else {
+            saveChanges(order);
+        }
+        order.markPersisted();
+        return order;
+    }
+
+    @Override
+    public List<Order> saveAll(List<Order> orders) {
+        List<OrderJpaEntity> inserts = orders.stream()
+                .filter(order -> !order.isPersisted())
+                .map(orderJpaMapper::toEntity)
+                .collect(Collectors.toList());
+        if (!inserts.isEmpty()) {
+            orderJpaRepository.saveAll(inserts);
+        }
 
-        // --- CLAVE: forzar UPDATE si ya existe por orderNumber ---
-        Optional<OrderJpaEntity> existingOpt = orderJpaRepository.findByOrderNumber(order.getOrderNumber().value());
-        existingOpt.ifPresent(existing -> {
-            // copiar ID para que JPA haga merge/update en vez de insert
-            entity.setId(existing.getId());
-            // si sustituyes la lista de items, asegúrate de que el mapeo tenga orphanRemoval/cascade;
-            // si no, podrías limpiar y volver a agregar según tu estrategia.
-        });
+        Map<Transition, List<String>> transitions = new LinkedHashMap<>();
+        for (Order order : orders) {
+            if (order.isPersisted() && order.getStatus() != order.getPersistedStatus()) {
+                transitions.computeIfAbsent(new Transition(order.getPersistedStatus(), order.getStatus()),
+                        t -> new ArrayList<>()).add(order.getOrderNumber().value());
+            }
+        }
+        transitions.forEach(this::updateStatus);
+
+        for (Order order : orders) {
+            if (order.isPersisted()) {
+                saveItemChanges(order);
+            }
+        }
+        orders.forEach(Order::markPersisted);
+        return orders;
+    }
+
+    private void updateStatus(Transition transition, Collection<String> orderNumbers) {
+        int updated = orderJpaRepository.updateStatusIn(orderNumbers,
+                orderJpaMapper.toJpaOrderStatus(transition.from()),
+                orderJpaMapper.toJpaOrderStatus(transition.to()));
+        if (updated != orderNumbers.size()) {
+            throw new OptimisticLockingFailureException((orderNumbers.size() - updated) + " of " + orderNumbers.size()
+                    + " orders are no longer " + transition.from() + "; cannot move them to " + transition.to());
+        }
+    }
 
-        // Guardar (INSERT si no existía; UPDATE si existía)
-        OrderJpaEntity saved = orderJpaRepository.save(entity);
+    private void saveChanges(Order order) {
+        String orderNumber = order.getOrderNumber().value();
+        if (order.getStatus() != order.getPersistedStatus()) {
+            int updated = orderJpaRepository.updateStatus(orderNumber,
+                    orderJpaMapper.toJpaOrderStatus(order.getPersistedStatus()),
+                    orderJpaMapper.toJpaOrderStatus(order.getStatus()));
+            if (updated == 0) {
+                throw new OptimisticLockingFailureException("Order " + orderNumber + " is no longer "
+                        + order.getPersistedStatus() + "; cannot move it to " + order.getStatus());
+            }
+        }
+        saveItemChanges(order);
+    }
 
-        // devolver dominio
-        return orderJpaMapper.toDomain(saved);
+    private void saveItemChanges(Order order) {
+        String orderNumber = order.getOrderNumber().value();
+        List<Long> removedIds = new ArrayList<>();
+        for (OrderItem removed : order.getRemovedItems()) {
+            // dos líneas iguales quitadas borran dos filas distintas
+            orderItemJpaRepository.findMatchingIds(orderNumber, removed.getProductNumber().value(),
+                            removed.getQuantity().value(), removed.getUnitPrice(), PageRequest.of(0, removedIds.size() + 1))
+                    .stream()
+                    .filter(id -> !removedIds.contains(id))
+                    .findFirst()
+                    .ifPresent(removedIds::add);
+        }
+        if (!removedIds.isEmpty()) {
+            orderItemJpaRepository.deleteByIds(removedIds);
+        }
+        if (!order.getAddedItems().isEmpty()) {
+            Long orderId = orderJpaRepository.findIdByOrderNumber(orderNumber)
+                    .orElseThrow(() -> new EmptyResultDataAccessException("Order not found: " + orderNumber, 1));
+            OrderJpaEntity reference = orderJpaRepository.getReferenceById(orderId);
+            List<OrderItemJpaEntity> added = order.getAddedItems().stream()
+                    .map(orderJpaMapper::toJpaEntity)
+                    .peek(item -> item.setOrder(reference))
+                    .collect(Collectors.toList());
+            orderItemJpaRepository.saveAll(added);
+        }
     }
 
     @Override
@@ -46,6 +133,14 @@ public class OrderRepositoryAdapter implements OrderRepository {
                 .map(orderJpaMapper::toDomain);
     }
 
+    @Override
+    public List<Order> findByOrderNumbers(Collection<OrderNumber> orderNumbers) {
+        List<String> values = orderNumbers.stream().map(OrderNumber::value).collect(Collectors.toList());
+        return orderJpaRepository.findByOrderNumberIn(values).stream()
+                .map(orderJpaMapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public List<Order> findAll() {
         return orderJpaRepository.findAll().stream()
@@ -57,4 +152,7 @@ public class OrderRepositoryAdapter implements OrderRepository {
     public void deleteByOrderNumber(OrderNumber orderNumber) {
         orderJpaRepository.deleteByOrderNumber(orderNumber.value());
     }
+
+    private record Transition(OrderStatus from, OrderStatus to) {
+    }
 }
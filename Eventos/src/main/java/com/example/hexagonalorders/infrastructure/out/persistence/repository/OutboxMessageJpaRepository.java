@@ -2,13 +2,121 @@ package com.example.hexagonalorders.infrastructure.out.persistence.repository;
 
 import com.example.hexagonalorders.infrastructure.out.persistence.entity.OutboxJpaEntity;
 import com.example.hexagonalorders.infrastructure.out.persistence.entity.OutboxJpaEntity.OutboxStatusJpa;
+import com.example.hexagonalorders.infrastructure.out.persistence.entity.OutboxMessageHeader;
+import com.example.hexagonalorders.infrastructure.out.persistence.entity.OutboxPayloadView;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface OutboxMessageJpaRepository extends JpaRepository<OutboxJpaEntity, UUID> {
 
-    List<OutboxJpaEntity> findTop10ByStatusOrderByCreatedAtAsc(OutboxStatusJpa status, Pageable pageable);
+    long countByStatus(OutboxStatusJpa status);
+
+    @Query("SELECT MIN(o.createdAt) FROM OutboxJpaEntity o WHERE o.status = :status")
+    Instant findOldestCreatedAt(@Param("status") OutboxStatusJpa status);
+
+    @Query("SELECT DISTINCT o.shard FROM OutboxJpaEntity o WHERE o.status = :status "
+            + "AND (o.nextAttemptAt IS NULL OR o.nextAttemptAt <= :now)")
+    List<Integer> findShardsDue(@Param("status") OutboxStatusJpa status, @Param("now") Instant now);
+
+    /**
+     * Filas sin claim o con lease vencido cuyo próximo intento ya venció. Una fila no adelanta a otra
+     * más vieja del mismo aggregate que esté esperando reintento.
+     * La exclusividad la dan el lease del shard (un solo worker lo drena) y el lease de fila que
+     * escribe el claim. El lock pesimista solo serializa dos claims que se crucen: con la proyección
+     * a DTO Hibernate emite un FOR UPDATE simple (sin SKIP LOCKED), así que el segundo espera al
+     * commit del primero y ya no ve las filas reclamadas.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT new com.example.hexagonalorders.infrastructure.out.persistence.entity.OutboxMessageHeader("
+            + "o.id, o.aggregateType, o.aggregateId, o.eventType, o.messageKey, o.traceId, o.createdAt, o.attempts) "
+            + "FROM OutboxJpaEntity o WHERE o.status = :status AND o.shard = :shard "
+            + "AND (o.leaseUntil IS NULL OR o.leaseUntil < :now) "
+            + "AND (o.nextAttemptAt IS NULL OR o.nextAttemptAt <= :now) "
+            + "AND NOT EXISTS (SELECT p.id FROM OutboxJpaEntity p WHERE p.aggregateId = o.aggregateId "
+            + "AND p.status = :status AND p.attempts > 0 AND p.createdAt < o.createdAt) "
+            + "ORDER BY o.createdAt")
+    List<OutboxMessageHeader> findClaimable(@Param("shard") int shard,
+                                            @Param("status") OutboxStatusJpa status,
+                                            @Param("now") Instant now,
+                                            Pageable pageable);
+
+    @Query("SELECT new com.example.hexagonalorders.infrastructure.out.persistence.entity.OutboxPayloadView("
+            + "o.id, o.payloadCodec, o.payload) FROM OutboxJpaEntity o WHERE o.id IN :ids")
+    List<OutboxPayloadView> findPayloads(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("UPDATE OutboxJpaEntity o SET o.claimedBy = :owner, o.leaseUntil = :leaseUntil WHERE o.id IN :ids")
+    int claim(@Param("ids") Collection<UUID> ids,
+              @Param("owner") String owner,
+              @Param("leaseUntil") Instant leaseUntil);
+
+    @Modifying
+    @Query("UPDATE OutboxJpaEntity o SET o.claimedBy = :owner, o.leaseUntil = :leaseUntil "
+            + "WHERE o.id = :id AND o.status = :status AND o.leaseUntil IS NULL "
+            + "AND NOT EXISTS (SELECT p.id FROM OutboxJpaEntity p WHERE p.aggregateId = o.aggregateId "
+            + "AND p.status = :status AND p.createdAt < o.createdAt)")
+    int claimIfFirstPending(@Param("id") UUID id,
+                            @Param("status") OutboxStatusJpa status,
+                            @Param("owner") String owner,
+                            @Param("leaseUntil") Instant leaseUntil);
+
+    @Modifying
+    @Query("UPDATE OutboxJpaEntity o SET o.attempts = :attempts, o.nextAttemptAt = :nextAttemptAt, "
+            + "o.claimedBy = NULL, o.leaseUntil = NULL WHERE o.id IN :ids")
+    int scheduleRetry(@Param("ids") Collection<UUID> ids,
+                      @Param("attempts") int attempts,
+                      @Param("nextAttemptAt") Instant nextAttemptAt);
+
+    @Modifying
+    @Query("INSERT INTO OutboxDeadLetterJpaEntity (id, aggregateType, aggregateId, eventType, messageKey, payload, "
+            + "payloadCodec, attempts, lastError, createdAt, deadLetteredAt) "
+            + "SELECT o.id, o.aggregateType, o.aggregateId, o.eventType, o.messageKey, o.payload, o.payloadCodec, :attempts, "
+            + ":lastError, o.createdAt, :deadLetteredAt FROM OutboxJpaEntity o WHERE o.id = :id")
+    int deadLetter(@Param("id") UUID id,
+                   @Param("attempts") int attempts,
+                   @Param("lastError") String lastError,
+                   @Param("deadLetteredAt") Instant deadLetteredAt);
+
+    @Modifying
+    @Query("UPDATE OutboxJpaEntity o SET o.status = :status, o.processedAt = :processedAt, "
+            + "o.claimedBy = NULL, o.leaseUntil = NULL WHERE o.id IN :ids")
+    int updateStatus(@Param("ids") Collection<UUID> ids,
+                     @Param("status") OutboxStatusJpa status,
+                     @Param("processedAt") Instant processedAt);
+
+    /**
+     * Filas terminadas más viejas que el corte, bloqueadas (FOR UPDATE SKIP LOCKED) para que dos
+     * instancias no purguen el mismo lote. Nativa: Hibernate no aplica el lock pesimista a una
+     * proyección escalar en JPQL. El id vuelve como texto porque el driver no tipa el uuid en
+     * consultas nativas.
+     */
+    @Query(value = "SELECT CAST(id AS VARCHAR(36)) FROM outbox WHERE status IN (:statuses) AND processed_at < :cutoff "
+            + "ORDER BY processed_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<String> findCompletedBefore(@Param("statuses") Collection<String> statuses,
+                                   @Param("cutoff") Instant cutoff,
+                                   @Param("limit") int limit);
+
+    @Modifying
+    @Query("INSERT INTO OutboxArchiveJpaEntity (id, aggregateType, aggregateId, eventType, messageKey, payload, "
+            + "payloadCodec, status, createdAt, processedAt, archivedAt) "
+            + "SELECT o.id, o.aggregateType, o.aggregateId, o.eventType, o.messageKey, o.payload, o.payloadCodec, "
+            + "CAST(o.status AS String), o.createdAt, o.processedAt, :archivedAt FROM OutboxJpaEntity o WHERE o.id IN :ids")
+    int archive(@Param("ids") Collection<UUID> ids, @Param("archivedAt") Instant archivedAt);
+
+    @Modifying
+    @Query("DELETE FROM OutboxJpaEntity o WHERE o.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<UUID> ids);
 }
@@ -2,53 +2,176 @@ package com.example.hexagonalorders.infrastructure.out.persistence.repository;
 
 import com.example.hexagonalorders.domain.model.OutboxMessage;
 import com.example.hexagonalorders.domain.port.out.OutboxRepository;
+import com.example.hexagonalorders.infrastructure.out.persistence.codec.OutboxPayloadCodecs;
 import com.example.hexagonalorders.infrastructure.out.persistence.entity.OutboxJpaEntity;
 import com.example.hexagonalorders.infrastructure.out.persistence.entity.OutboxJpaEntity.OutboxStatusJpa;
+import com.example.hexagonalorders.infrastructure.out.persistence.entity.OutboxMessageHeader;
+import com.example.hexagonalorders.infrastructure.out.persistence.entity.OutboxPayloadView;
+import com.example.hexagonalorders.infrastructure.out.persistence.entity.OutboxShardLeaseJpaEntity;
 import com.example.hexagonalorders.infrastructure.out.persistence.mapper.OutboxMessageMapper;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+@Slf4j
 @Repository
 @RequiredArgsConstructor
 public class OutboxRepositoryAdapter implements OutboxRepository {
 
     private final OutboxMessageJpaRepository jpaRepository;
+    private final OutboxShardLeaseJpaRepository shardLeaseRepository;
+    private final OutboxPayloadCodecs payloadCodecs;
+
+    /** Debe ser el mismo en todas las instancias: cambia el shard al que cae cada aggregate. */
+    @Value("${outbox.shards:16}")
+    private int shardCount;
+
+    @PostConstruct
+    void registerShards() {
+        Set<Integer> existing = shardLeaseRepository.findAll().stream()
+                .map(OutboxShardLeaseJpaEntity::getShard)
+                .collect(Collectors.toSet());
+        List<OutboxShardLeaseJpaEntity> missing = IntStream.range(0, shardCount)
+                .filter(shard -> !existing.contains(shard))
+                .mapToObj(OutboxShardLeaseJpaEntity::new)
+                .collect(Collectors.toList());
+        try {
+            shardLeaseRepository.saveAll(missing);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Outbox shards already registered by another instance");
+        }
+    }
 
     @Override
     public void save(OutboxMessage message) {
-        OutboxJpaEntity entity = OutboxMessageMapper.toJpaEntity(message);
+        OutboxJpaEntity entity = OutboxMessageMapper.toJpaEntity(message, payloadCodecs.writeCodec());
+        entity.setShard(shardOf(message.aggregateId()));
         jpaRepository.save(entity);
     }
 
     @Override
-    public List<OutboxMessage> findPending(int limit) {
-        List<OutboxJpaEntity> entities = jpaRepository.findTop10ByStatusOrderByCreatedAtAsc(OutboxStatusJpa.PENDING, PageRequest.of(0, limit));
-        return entities.stream()
+    public int shardOf(UUID aggregateId) {
+        return Math.floorMod(aggregateId.hashCode(), shardCount);
+    }
+
+    @Override
+    public List<Integer> findShardsWithPending() {
+        return jpaRepository.findShardsDue(OutboxStatusJpa.PENDING, Instant.now());
+    }
+
+    @Override
+    public boolean acquireShard(int shard, String owner, Instant leaseUntil) {
+        return shardLeaseRepository.acquire(shard, owner, leaseUntil, Instant.now()) == 1;
+    }
+
+    @Override
+    public void releaseShard(int shard, String owner) {
+        shardLeaseRepository.release(shard, owner);
+    }
+
+    @Override
+    public List<OutboxMessage> claimPending(int shard, String owner, Instant leaseUntil, int limit) {
+        List<OutboxMessageHeader> headers = jpaRepository.findClaimable(
+                shard, OutboxStatusJpa.PENDING, Instant.now(), PageRequest.of(0, limit));
+        if (headers.isEmpty()) {
+            return List.of();
+        }
+        jpaRepository.claim(headers.stream().map(OutboxMessageHeader::id).collect(Collectors.toList()),
+                owner, leaseUntil);
+        return headers.stream()
                 .map(OutboxMessageMapper::toDomainModel)
                 .collect(Collectors.toList());
     }
 
     @Override
-    public void markProcessed(UUID id) {
-        jpaRepository.findById(id).ifPresent(entity -> {
-            entity.setStatus(OutboxStatusJpa.PROCESSED);
-            entity.setProcessedAt(Instant.now());
-            jpaRepository.save(entity);
-        });
+    public List<OutboxMessage> loadPayloads(List<OutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, String> payloads = jpaRepository.findPayloads(
+                        messages.stream().map(OutboxMessage::id).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(OutboxPayloadView::id,
+                        view -> payloadCodecs.forId(view.codec()).decode(view.payload())));
+        List<UUID> missing = messages.stream()
+                .map(OutboxMessage::id)
+                .filter(id -> !payloads.containsKey(id))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            // la retención solo borra filas terminadas: una fila reclamada no puede faltar
+            throw new IllegalStateException("Claimed outbox rows no longer exist: " + missing);
+        }
+        return messages.stream()
+                .map(message -> message.withPayload(payloads.get(message.id())))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean claim(UUID id, String owner, Instant leaseUntil) {
+        return jpaRepository.claimIfFirstPending(id, OutboxStatusJpa.PENDING, owner, leaseUntil) == 1;
+    }
+
+    @Override
+    public void markProcessed(Collection<UUID> ids) {
+        updateStatus(ids, OutboxStatusJpa.PROCESSED);
+    }
+
+    @Override
+    public void scheduleRetry(Collection<UUID> ids, int attempts, Instant nextAttemptAt) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jpaRepository.scheduleRetry(ids, attempts, nextAttemptAt);
+    }
+
+    @Override
+    public void deadLetter(UUID id, int attempts, String lastError) {
+        jpaRepository.deadLetter(id, attempts, lastError, Instant.now());
+        updateStatus(List.of(id), OutboxStatusJpa.FAILED);
+    }
+
+    @Override
+    public int purgeCompleted(Instant olderThan, int limit, boolean archive) {
+        List<UUID> ids = jpaRepository.findCompletedBefore(
+                        List.of(OutboxStatusJpa.PROCESSED.name(), OutboxStatusJpa.FAILED.name()), olderThan, limit)
+                .stream().map(UUID::fromString).toList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        if (archive) {
+            jpaRepository.archive(ids, Instant.now());
+        }
+        return jpaRepository.deleteByIds(ids);
+    }
+
+    private void updateStatus(Collection<UUID> ids, OutboxStatusJpa status) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jpaRepository.updateStatus(ids, status, Instant.now());
+    }
+
+    @Override
+    public long countByStatus(OutboxMessage.Status status) {
+        return jpaRepository.countByStatus(OutboxStatusJpa.valueOf(status.name()));
     }
 
     @Override
-    public void markFailed(UUID id) {
-        jpaRepository.findById(id).ifPresent(entity -> {
-            entity.setStatus(OutboxStatusJpa.FAILED);
-            entity.setProcessedAt(Instant.now());
-            jpaRepository.save(entity);
-        });
+    public Optional<Instant> findOldestPendingCreatedAt() {
+        return Optional.ofNullable(jpaRepository.findOldestCreatedAt(OutboxStatusJpa.PENDING));
     }
 }
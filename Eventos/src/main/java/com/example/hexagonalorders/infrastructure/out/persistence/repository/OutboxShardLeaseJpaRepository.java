@@ -0,0 +1,29 @@
+package com.example.hexagonalorders.infrastructure.out.persistence.repository;
+
+import com.example.hexagonalorders.infrastructure.out.persistence.entity.OutboxShardLeaseJpaEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface OutboxShardLeaseJpaRepository extends JpaRepository<OutboxShardLeaseJpaEntity, Integer> {
+
+    /** Compare-and-set: toma o renueva el lease si está libre, vencido o ya es nuestro. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxShardLeaseJpaEntity l SET l.owner = :owner, l.leaseUntil = :leaseUntil "
+            + "WHERE l.shard = :shard AND (l.owner IS NULL OR l.owner = :owner OR l.leaseUntil < :now)")
+    int acquire(@Param("shard") int shard,
+                @Param("owner") String owner,
+                @Param("leaseUntil") Instant leaseUntil,
+                @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxShardLeaseJpaEntity l SET l.owner = NULL, l.leaseUntil = NULL "
+            + "WHERE l.shard = :shard AND l.owner = :owner")
+    int release(@Param("shard") int shard, @Param("owner") String owner);
+}
@@ -0,0 +1,93 @@
+package com.example.hexagonalorders.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedIdsTest {
+
+    @Test
+    void generatesVersion7UuidsWithTheCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = TimeOrderedIds.newUuid();
+        long after = System.currentTimeMillis();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        // el contador puede haber adelantado el timestamp unos ms si otro test generó muchos ids
+        assertThat(timestamp).isGreaterThanOrEqualTo(before).isLessThan(after + 1000);
+    }
+
+    @Test
+    void idsStrictlyIncreaseAsUuidsAndAsText() {
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            uuids.add(TimeOrderedIds.newUuid());
+        }
+
+        for (int i = 1; i < uuids.size(); i++) {
+            UUID previous = uuids.get(i - 1);
+            UUID current = uuids.get(i);
+            assertThat(Long.compareUnsigned(current.getMostSignificantBits(), previous.getMostSignificantBits()))
+                    .as("id %d", i).isPositive();
+            assertThat(TimeOrderedIds.encode(current)).isGreaterThan(TimeOrderedIds.encode(previous));
+        }
+    }
+
+    @Test
+    void neverRepeatsAcrossThreads() {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 8).parallel().forEach(thread -> {
+            for (int i = 0; i < 20_000; i++) {
+                ids.add(TimeOrderedIds.newUuid());
+            }
+        });
+
+        assertThat(ids).hasSize(160_000);
+    }
+
+    @Test
+    void compactIdsRoundTrip() {
+        Set<String> compact = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID uuid = TimeOrderedIds.newUuid();
+            String encoded = TimeOrderedIds.encode(uuid);
+
+            assertThat(encoded).hasSize(26).matches("[0-7][0-9A-HJKMNP-TV-Z]{25}");
+            assertThat(TimeOrderedIds.decode(encoded)).contains(uuid);
+            assertThat(TimeOrderedIds.decode(encoded.toLowerCase())).contains(uuid);
+            compact.add(encoded);
+        }
+        assertThat(compact).hasSize(10_000);
+    }
+
+    @Test
+    void encodesTheExtremes() {
+        UUID min = new UUID(0x0000000000007000L, 0x8000000000000000L);
+        UUID max = new UUID(0xFFFFFFFFFFFF7FFFL, 0xBFFFFFFFFFFFFFFFL);
+
+        assertThat(TimeOrderedIds.decode(TimeOrderedIds.encode(min))).contains(min);
+        assertThat(TimeOrderedIds.decode(TimeOrderedIds.encode(max))).contains(max);
+        assertThat(TimeOrderedIds.encode(new UUID(-1L, -1L))).isEqualTo("7ZZZZZZZZZZZZZZZZZZZZZZZZZ");
+    }
+
+    @Test
+    void rejectsTextThatIsNotAnEncodedUuidV7() {
+        assertThat(TimeOrderedIds.decode(null)).isEmpty();
+        assertThat(TimeOrderedIds.decode("ORD-001")).isEmpty();
+        assertThat(TimeOrderedIds.decode(UUID.randomUUID().toString())).isEmpty();
+        assertThat(TimeOrderedIds.decode(TimeOrderedIds.encode(UUID.randomUUID()))).isEmpty(); // v4
+        assertThat(TimeOrderedIds.decode("8" + "0".repeat(25))).isEmpty(); // más de 128 bits
+        assertThat(TimeOrderedIds.decode("0".repeat(25) + "U")).isEmpty(); // fuera del alfabeto
+        assertThat(TimeOrderedIds.decode("0".repeat(25) + "é")).isEmpty();
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.hexagonalorders.infrastructure.in.command;
+
+import com.example.hexagonalorders.domain.model.valueobject.OrderNumber;
+import com.example.hexagonalorders.domain.port.in.OrderUseCase;
+import com.example.hexagonalorders.infrastructure.in.command.OrderConfirmationQueue.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class OrderConfirmationQueueTest {
+
+    private final OrderUseCase orderUseCase = mock(OrderUseCase.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OrderConfirmationQueue queue = new OrderConfirmationQueue(orderUseCase, meterRegistry);
+
+    private final CountDownLatch firstBatchStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+    private final List<List<OrderNumber>> batches = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        releaseFirstBatch.countDown();
+        queue.stopWorkers();
+    }
+
+    @Test
+    void rejectsSubmissionsOnceTheQueueIsFull() {
+        start(2);
+        holdFirstBatch();
+
+        assertThat(queue.submit(number(0))).isTrue();
+        awaitFirstBatch(); // el worker ya sacó la 0: la cola está vacía
+        assertThat(queue.submit(number(1))).isTrue();
+        assertThat(queue.submit(number(2))).isTrue();
+        assertThat(queue.submit(number(3))).isFalse();
+
+        assertThat(queue.status(number(3))).isEmpty();
+        assertThat(meterRegistry.counter("orders.confirm.commands", "result", "queue_full").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("orders.confirm.queue.depth").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void coalescesWhatQueuedUpWhileATransactionWasRunning() {
+        start(100);
+        holdFirstBatch();
+
+        queue.submit(number(0));
+        awaitFirstBatch();
+        IntStream.range(1, 51).forEach(i -> assertThat(queue.submit(number(i))).isTrue());
+        releaseFirstBatch.countDown();
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> batches.size() == 2);
+        assertThat(batches.get(0)).containsExactly(number(0));
+        assertThat(batches.get(1)).hasSize(50).startsWith(number(1)).endsWith(number(50));
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(queue.status(number(50))).hasValueSatisfying(c -> assertThat(c.state()).isEqualTo(State.CONFIRMED)));
+        assertThat(meterRegistry.get("orders.confirm.batch.size").summary().max()).isEqualTo(50);
+        verify(orderUseCase, never()).confirmOrder(eq(number(1)));
+    }
+
+    @Test
+    void doesNotQueueAnOrderTwiceWhileItIsPending() {
+        start(10);
+        holdFirstBatch();
+
+        queue.submit(number(0));
+        awaitFirstBatch();
+        assertThat(queue.submit(number(1))).isTrue();
+        assertThat(queue.submit(number(1))).isTrue();
+
+        assertThat(meterRegistry.get("orders.confirm.queue.depth").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void confirmsOneByOneWhenTheBatchRollsBack() {
+        start(10);
+        holdFirstBatch();
+        doThrow(new IllegalStateException("Order cannot be confirmed unless it is in PENDING status."))
+                .when(orderUseCase).confirmOrder(number(2));
+
+        queue.submit(number(0));
+        awaitFirstBatch();
+        for (int i = 1; i <= 3; i++) {
+            queue.submit(number(i));
+        }
+        rollBackBatchesAfterTheFirst();
+        releaseFirstBatch.countDown();
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(queue.status(number(1))).hasValueSatisfying(c -> assertThat(c.state()).isEqualTo(State.CONFIRMED));
+            assertThat(queue.status(number(3))).hasValueSatisfying(c -> assertThat(c.state()).isEqualTo(State.CONFIRMED));
+            assertThat(queue.status(number(2))).hasValueSatisfying(c -> {
+                assertThat(c.state()).isEqualTo(State.REJECTED);
+                assertThat(c.error()).contains("PENDING");
+            });
+        });
+        assertThat(batches.get(1)).containsExactly(number(1), number(2), number(3));
+        assertThat(meterRegistry.counter("orders.confirm.commands", "result", "rejected").count()).isEqualTo(1);
+    }
+
+    @Test
+    void forgetsCompletedResultsAfterTheRetention() {
+        start(10);
+        ReflectionTestUtils.setField(queue, "statusRetention", Duration.ZERO);
+        queue.submit(number(1));
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(queue.status(number(1))).hasValueSatisfying(c -> assertThat(c.state()).isEqualTo(State.CONFIRMED)));
+
+        queue.purgeCompleted();
+
+        assertThat(queue.status(number(1))).isEmpty();
+    }
+
+    private void start(int capacity) {
+        ReflectionTestUtils.setField(queue, "queueCapacity", capacity);
+        ReflectionTestUtils.setField(queue, "maxBatch", 500);
+        ReflectionTestUtils.setField(queue, "workerThreads", 1);
+        ReflectionTestUtils.setField(queue, "statusRetention", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(queue, "shutdownTimeout", Duration.ofSeconds(5));
+        queue.startWorkers();
+    }
+
+    /** El primer lote queda dentro de confirmOrders hasta releaseFirstBatch. */
+    private void holdFirstBatch() {
+        doAnswer(invocation -> {
+            List<OrderNumber> batch = List.copyOf(invocation.getArgument(0));
+            batches.add(batch);
+            if (batches.size() == 1) {
+                firstBatchStarted.countDown();
+                releaseFirstBatch.await(10, TimeUnit.SECONDS);
+            }
+            return List.of();
+        }).when(orderUseCase).confirmOrders(anyList());
+    }
+
+    private void rollBackBatchesAfterTheFirst() {
+        doAnswer(invocation -> {
+            batches.add(List.copyOf(invocation.getArgument(0)));
+            throw new IllegalStateException("rolled back");
+        }).when(orderUseCase).confirmOrders(anyList());
+    }
+
+    private void awaitFirstBatch() {
+        try {
+            assertThat(firstBatchStarted.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static OrderNumber number(int i) {
+        return new OrderNumber("ORD-" + i);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.hexagonalorders.infrastructure.in.web;
+
+import com.example.hexagonalorders.application.service.OrderService;
+import com.example.hexagonalorders.domain.model.valueobject.OrderNumber;
+import com.example.hexagonalorders.infrastructure.in.web.dto.BatchOrderResultDto;
+import com.example.hexagonalorders.infrastructure.in.web.dto.ConfirmationStatusDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * {@code POST /api/orders/{n}/confirm?async=true} de punta a punta (H2 + broker embebido): 202 con
+ * Location mientras hay lugar, 503 con Retry-After con la cola llena, y lo acumulado mientras una
+ * transacción corría se confirma en la siguiente.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.datasource.url=jdbc:h2:mem:async-confirmation",
+        "orders.confirm.queue-capacity=2"})
+@EmbeddedKafka(partitions = 1)
+class AsyncConfirmationIntegrationTest {
+
+    private static final String ORDER = "{\"orderNumber\":\"X\",\"customerId\":\"C1\",\"orderDate\":\"2024-06-18T10:00:00\","
+            + "\"status\":\"PENDING\",\"items\":[{\"productNumber\":\"P1\",\"quantity\":2,\"unitPrice\":9.5}]}";
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SpyBean
+    private OrderService orderService;
+
+    @Test
+    void acceptsUntilTheQueueIsFullThenConfirmsTheBacklogInOneTransaction() throws Exception {
+        List<String> orders = create(4);
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        List<List<OrderNumber>> batches = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            batches.add(List.copyOf(invocation.getArgument(0))); // la cola reutiliza la lista del lote
+            if (batches.size() == 1) {
+                firstBatchStarted.countDown();
+                releaseFirstBatch.await(10, TimeUnit.SECONDS);
+            }
+            return invocation.callRealMethod();
+        }).when(orderService).confirmOrders(anyList());
+
+        ResponseEntity<ConfirmationStatusDto> accepted = confirmAsync(orders.get(0));
+        assertThat(accepted.getStatusCode().value()).isEqualTo(202);
+        assertThat(accepted.getHeaders().getLocation()).hasPath("/api/orders/" + orders.get(0) + "/confirmation");
+        assertThat(accepted.getBody().getState()).isEqualTo("QUEUED");
+        assertThat(firstBatchStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(confirmAsync(orders.get(1)).getStatusCode().value()).isEqualTo(202);
+        assertThat(confirmAsync(orders.get(2)).getStatusCode().value()).isEqualTo(202);
+        ResponseEntity<ConfirmationStatusDto> full = confirmAsync(orders.get(3));
+        assertThat(full.getStatusCode().value()).isEqualTo(503);
+        assertThat(full.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(state(orders.get(1))).isEqualTo("QUEUED");
+
+        releaseFirstBatch.countDown();
+
+        await().atMost(Duration.ofSeconds(20)).untilAsserted(() -> {
+            for (String order : orders.subList(0, 3)) {
+                assertThat(state(order)).isEqualTo("CONFIRMED");
+            }
+        });
+        assertThat(batches).containsExactly(List.of(new OrderNumber(orders.get(0))),
+                List.of(new OrderNumber(orders.get(1)), new OrderNumber(orders.get(2))));
+        assertThat(meterRegistry.get("orders.confirm.batch.size").summary().max()).isEqualTo(2);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM orders WHERE status = 'CONFIRMED'", Long.class)).isEqualTo(3);
+        assertThat(rest.getForEntity("/api/orders/{n}/confirmation", String.class, orders.get(3))
+                .getStatusCode().value()).isEqualTo(404);
+
+        // confirmar otra vez: aceptado, pero la orden ya no está PENDING
+        assertThat(confirmAsync(orders.get(0)).getStatusCode().value()).isEqualTo(202);
+        await().atMost(Duration.ofSeconds(20)).untilAsserted(() -> assertThat(state(orders.get(0))).isEqualTo("REJECTED"));
+    }
+
+    private ResponseEntity<ConfirmationStatusDto> confirmAsync(String orderNumber) {
+        return rest.postForEntity("/api/orders/{n}/confirm?async=true", null, ConfirmationStatusDto.class, orderNumber);
+    }
+
+    private String state(String orderNumber) {
+        return rest.getForObject("/api/orders/{n}/confirmation", ConfirmationStatusDto.class, orderNumber).getState();
+    }
+
+    private List<String> create(int count) throws Exception {
+        HttpHeaders ndjson = new HttpHeaders();
+        ndjson.setContentType(MediaType.parseMediaType(OrderBatchController.NDJSON));
+        String body = String.join("\n", Collections.nCopies(count, ORDER));
+        String results = rest.postForObject("/api/orders/batch", new HttpEntity<>(body, ndjson), String.class);
+        List<String> orderNumbers = new ArrayList<>();
+        for (String line : results.split("\n")) {
+            orderNumbers.add(objectMapper.readValue(line, BatchOrderResultDto.class).getOrderNumber());
+        }
+        return orderNumbers;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.hexagonalorders.infrastructure.in.web;
+
+import com.example.hexagonalorders.infrastructure.in.web.dto.BatchOrderResultDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Alta masiva NDJSON y confirmación masiva de punta a punta (H2 + broker embebido).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.datasource.url=jdbc:h2:mem:bulk-orders",
+        "orders.batch.chunk-size=3"})
+@EmbeddedKafka(partitions = 1)
+class BulkOrdersIntegrationTest {
+
+    private static final String ORDER = "{\"orderNumber\":\"X\",\"customerId\":\"C1\",\"orderDate\":\"2024-06-18T10:00:00\","
+            + "\"status\":\"PENDING\",\"items\":[{\"productNumber\":\"P1\",\"quantity\":2,\"unitPrice\":9.5},"
+            + "{\"productNumber\":\"P2\",\"quantity\":1,\"unitPrice\":3}]}";
+    private static final String INVALID = ORDER.replace("\"quantity\":2", "\"quantity\":-2");
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void createsInChunksThenConfirmsAllOrNothing() throws Exception {
+        String body = String.join("\n", ORDER, "{not json", ORDER, "", INVALID, ORDER, ORDER, ORDER);
+        HttpHeaders ndjson = new HttpHeaders();
+        ndjson.setContentType(MediaType.parseMediaType(OrderBatchController.NDJSON));
+
+        ResponseEntity<String> created = rest.postForEntity("/api/orders/batch", new HttpEntity<>(body, ndjson), String.class);
+
+        assertThat(created.getStatusCode().value()).isEqualTo(200);
+        List<BatchOrderResultDto> results = new ArrayList<>();
+        for (String line : created.getBody().split("\n")) {
+            results.add(objectMapper.readValue(line, BatchOrderResultDto.class));
+        }
+        assertThat(results).extracting(BatchOrderResultDto::getLine).containsExactly(1, 2, 3, 5, 6, 7, 8);
+        assertThat(results).extracting(BatchOrderResultDto::getStatus).containsExactly(
+                "CREATED", "REJECTED", "CREATED", "REJECTED", "CREATED", "CREATED", "CREATED");
+        List<String> orderNumbers = results.stream()
+                .filter(result -> result.getStatus().equals("CREATED"))
+                .map(BatchOrderResultDto::getOrderNumber)
+                .toList();
+        assertThat(orderNumbers).doesNotHaveDuplicates().doesNotContain("X");
+        assertThat(count("SELECT COUNT(*) FROM orders")).isEqualTo(5);
+        assertThat(count("SELECT COUNT(*) FROM order_items")).isEqualTo(10);
+
+        HttpHeaders json = new HttpHeaders();
+        json.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<String> confirmed = rest.postForEntity("/api/orders/batch/confirm",
+                new HttpEntity<>(orderNumbers.subList(0, 3), json), String.class);
+        assertThat(confirmed.getStatusCode().value()).isEqualTo(200);
+
+        // la tercera ya está CONFIRMED: no se confirma ninguna
+        List<String> mixed = new ArrayList<>(orderNumbers.subList(2, 5));
+        assertThat(rest.postForEntity("/api/orders/batch/confirm", new HttpEntity<>(mixed, json), String.class)
+                .getStatusCode().value()).isEqualTo(400);
+        mixed.set(0, "NOPE");
+        assertThat(rest.postForEntity("/api/orders/batch/confirm", new HttpEntity<>(mixed, json), String.class)
+                .getStatusCode().value()).isEqualTo(404);
+
+        assertThat(count("SELECT COUNT(*) FROM orders WHERE status = 'CONFIRMED'")).isEqualTo(3);
+        assertThat(count("SELECT COUNT(*) FROM orders WHERE status = 'PENDING'")).isEqualTo(2);
+    }
+
+    private long count(String sql) {
+        return jdbc.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.hexagonalorders.infrastructure.in.web;
+
+import com.example.hexagonalorders.domain.model.Order;
+import com.example.hexagonalorders.domain.model.valueobject.OrderNumber;
+import com.example.hexagonalorders.domain.port.in.OrderUseCase;
+import com.example.hexagonalorders.infrastructure.in.web.dto.BatchOrderResultDto;
+import com.example.hexagonalorders.infrastructure.in.web.mapper.OrderMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderBatchControllerTest {
+
+    private final OrderUseCase orderUseCase = mock(OrderUseCase.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final OrderBatchController controller = new OrderBatchController(orderUseCase, new OrderMapper(), objectMapper);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(controller, "chunkSize", 3);
+        ReflectionTestUtils.setField(controller, "maxConfirm", 5);
+    }
+
+    @Test
+    void createsEachChunkInOneCallAndAnswersOneLinePerInputLine() throws Exception {
+        when(orderUseCase.createOrders(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<BatchOrderResultDto> results = post(order("A1", 2) + "\n{not json\n" + order("A2", 1) + "\n\n"
+                + order("A3", 1) + "\n" + order("A4", 1) + "\n");
+
+        assertThat(results).extracting(BatchOrderResultDto::getLine).containsExactly(1, 2, 3, 5, 6);
+        assertThat(results).extracting(BatchOrderResultDto::getStatus)
+                .containsExactly("CREATED", "REJECTED", "CREATED", "CREATED", "CREATED");
+        assertThat(results).extracting(BatchOrderResultDto::getOrderNumber)
+                .containsExactly("A1", null, "A2", "A3", "A4");
+        assertThat(results.get(1).getError()).isNotBlank();
+        // chunks de 3 líneas no vacías: [A1, ilegible, A2] y [A3, A4]
+        verify(orderUseCase, times(2)).createOrders(anyList());
+    }
+
+    @Test
+    void rejectsLinesThatFailDomainValidationWithoutTouchingTheOthers() throws Exception {
+        when(orderUseCase.createOrders(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<BatchOrderResultDto> results = post(order("A1", 1) + "\n" + order("A2", -2) + "\n");
+
+        assertThat(results).extracting(BatchOrderResultDto::getStatus).containsExactly("CREATED", "REJECTED");
+    }
+
+    @Test
+    void fallsBackToOneOrderAtATimeWhenAChunkRollsBack() throws Exception {
+        when(orderUseCase.createOrders(anyList())).thenThrow(new IllegalStateException("constraint violation"));
+        when(orderUseCase.createOrder(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            if (order.getOrderNumber().value().equals("A2")) {
+                throw new IllegalStateException("duplicate order A2");
+            }
+            return order;
+        });
+
+        List<BatchOrderResultDto> results = post(order("A1", 1) + "\n" + order("A2", 1) + "\n" + order("A3", 1));
+
+        assertThat(results).extracting(BatchOrderResultDto::getStatus).containsExactly("CREATED", "REJECTED", "CREATED");
+        assertThat(results.get(1).getError()).isEqualTo("duplicate order A2");
+        verify(orderUseCase, times(3)).createOrder(any(Order.class));
+    }
+
+    @Test
+    void mapsBulkConfirmFailuresToStatusCodes() {
+        when(orderUseCase.confirmOrders(List.of(new OrderNumber("A1"), new OrderNumber("A2"))))
+                .thenThrow(new IllegalStateException("Order cannot be confirmed unless it is in PENDING status."));
+        when(orderUseCase.confirmOrders(List.of(new OrderNumber("NOPE"))))
+                .thenThrow(new RuntimeException("Order not found: NOPE"));
+
+        assertThat(controller.confirmOrders(List.of("A1", "A2")).getStatusCode().value()).isEqualTo(400);
+        assertThat(controller.confirmOrders(List.of("NOPE")).getStatusCode().value()).isEqualTo(404);
+        assertThat(controller.confirmOrders(List.of()).getStatusCode().value()).isEqualTo(400);
+        assertThat(controller.confirmOrders(List.of("1", "2", "3", "4", "5", "6")).getStatusCode().value()).isEqualTo(400);
+    }
+
+    private List<BatchOrderResultDto> post(String body) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.createOrders(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), response);
+
+        assertThat(response.getContentType()).isEqualTo(OrderBatchController.NDJSON);
+        List<BatchOrderResultDto> results = new ArrayList<>();
+        for (String line : response.getContentAsString().split("\n")) {
+            results.add(objectMapper.readValue(line, BatchOrderResultDto.class));
+        }
+        return results;
+    }
+
+    private static String order(String orderNumber, int quantity) {
+        return "{\"orderNumber\":\"" + orderNumber + "\",\"customerId\":\"C1\",\"orderDate\":\"2024-06-18T10:00:00\","
+                + "\"status\":\"PENDING\",\"items\":[{\"productNumber\":\"P1\",\"quantity\":" + quantity
+                + ",\"unitPrice\":9.5}]}";
+    }
+}
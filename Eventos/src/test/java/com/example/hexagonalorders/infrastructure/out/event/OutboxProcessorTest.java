@@ -0,0 +1,164 @@
+package com.example.hexagonalorders.infrastructure.out.event;
+
+import com.example.hexagonalorders.application.event.IntegrationEventRoute;
+import com.example.hexagonalorders.application.event.IntegrationEventRoutes;
+import com.example.hexagonalorders.application.event.OutboxMessageSavedEvent;
+import com.example.hexagonalorders.domain.model.OutboxMessage;
+import com.example.hexagonalorders.domain.port.out.MessagePublisher;
+import com.example.hexagonalorders.domain.port.out.OutboxRepository;
+import com.example.hexagonalorders.infrastructure.out.messaging.PublisherCircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxProcessorTest {
+
+    private static final String INSTANCE = "instance-1";
+
+    private final OutboxRepository outboxRepository = mock(OutboxRepository.class);
+    private final MessagePublisher messagePublisher = mock(MessagePublisher.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final PublisherCircuitBreaker circuitBreaker = mock(PublisherCircuitBreaker.class);
+    private final IntegrationEventRoutes routes = mock(IntegrationEventRoutes.class);
+    private final OutboxRetryPolicy retryPolicy = mock(OutboxRetryPolicy.class);
+    private final OutboxProcessor processor = new OutboxProcessor(outboxRepository, messagePublisher,
+            new TransactionTemplate(transactionManager), new SimpleMeterRegistry(), retryPolicy,
+            circuitBreaker, mock(TaskScheduler.class), routes, mock(OutboxMetrics.class));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(processor, "batchSize", 100);
+        ReflectionTestUtils.setField(processor, "workerThreads", 1);
+        ReflectionTestUtils.setField(processor, "leaseMs", 60_000L);
+        ReflectionTestUtils.setField(processor, "instanceId", INSTANCE);
+        ReflectionTestUtils.setField(processor, "maxInFlight", 10);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(circuitBreaker.permits(anyInt())).thenAnswer(call -> call.getArgument(0));
+        when(routes.forEventType("OrderConfirmedEvent")).thenReturn(new IntegrationEventRoute(Object.class,
+                "OrderConfirmedEvent", 1, "Order", "orders", event -> "key", null, true));
+        when(messagePublisher.publish(any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(outboxRepository.acquireShard(anyInt(), eq(INSTANCE), any())).thenReturn(true);
+        processor.startWorkers();
+    }
+
+    @AfterEach
+    void tearDown() {
+        processor.stopWorkers();
+    }
+
+    @Test
+    void claimsEachBatchInItsOwnCommittedTransactionBeforePublishing() {
+        OutboxMessage message = message();
+        when(outboxRepository.findShardsWithPending()).thenReturn(List.of(3));
+        when(outboxRepository.claimPending(eq(3), eq(INSTANCE), any(), eq(100))).thenReturn(List.of(message));
+        when(outboxRepository.loadPayloads(List.of(message))).thenReturn(List.of(message));
+
+        processor.processPendingMessages();
+
+        verify(outboxRepository, timeout(5000)).releaseShard(3, INSTANCE);
+        ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        InOrder order = inOrder(transactionManager, outboxRepository, messagePublisher);
+        order.verify(transactionManager).getTransaction(definitions.capture());
+        order.verify(outboxRepository).claimPending(eq(3), eq(INSTANCE), any(), eq(100));
+        order.verify(transactionManager).commit(any());
+        order.verify(messagePublisher).publish(any());
+        assertThat(definitions.getValue().getPropagationBehavior())
+                .isEqualTo(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Test
+    void dropsFastPathMessagesOfAShardLeasedByAnotherWorker() {
+        ReflectionTestUtils.setField(processor, "fastPathEnabled", true);
+        OutboxMessage message = message();
+        when(outboxRepository.shardOf(message.aggregateId())).thenReturn(5);
+        when(outboxRepository.acquireShard(eq(5), eq(INSTANCE), any())).thenReturn(false, true);
+        when(outboxRepository.findShardsWithPending()).thenReturn(List.of(5));
+        when(outboxRepository.claimPending(eq(5), eq(INSTANCE), any(), anyInt())).thenReturn(List.of());
+        when(outboxRepository.loadPayloads(List.of())).thenReturn(List.of());
+
+        processor.onOutboxMessageSaved(new OutboxMessageSavedEvent(message));
+        verify(outboxRepository, timeout(5000)).acquireShard(eq(5), eq(INSTANCE), any());
+        processor.processPendingMessages(); // ya con el lease libre
+
+        verify(outboxRepository, timeout(5000)).releaseShard(5, INSTANCE);
+        verify(outboxRepository, never()).claim(any(), any(), any());
+        verify(messagePublisher, never()).publish(any());
+    }
+
+    @Test
+    void givesEachFailedMessageItsOwnJitteredRetryInstant() {
+        OutboxMessage first = message();
+        OutboxMessage second = message();
+        failToPublish(List.of(first, second));
+        when(retryPolicy.delayFor(1)).thenReturn(Duration.ofSeconds(1), Duration.ofSeconds(3));
+
+        processor.processPendingMessages();
+
+        ArgumentCaptor<List<UUID>> ids = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Instant> instants = ArgumentCaptor.forClass(Instant.class);
+        verify(outboxRepository, timeout(5000).times(2)).scheduleRetry(ids.capture(), eq(1), instants.capture());
+        assertThat(ids.getAllValues()).containsExactlyInAnyOrder(List.of(first.id()), List.of(second.id()));
+        assertThat(instants.getAllValues()).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void deadLettersMessagesThatReachMaxAttempts() {
+        OutboxMessage exhausted = message(2);
+        failToPublish(List.of(exhausted));
+        when(retryPolicy.isExhausted(3)).thenReturn(true);
+
+        processor.processPendingMessages();
+
+        verify(outboxRepository, timeout(5000)).deadLetter(eq(exhausted.id()), eq(3), contains("broker down"));
+        verify(outboxRepository, timeout(5000)).releaseShard(7, INSTANCE);
+        verify(outboxRepository, never()).scheduleRetry(anyCollection(), anyInt(), any());
+    }
+
+    private void failToPublish(List<OutboxMessage> messages) {
+        when(outboxRepository.findShardsWithPending()).thenReturn(List.of(7));
+        when(outboxRepository.claimPending(eq(7), eq(INSTANCE), any(), eq(100))).thenReturn(messages);
+        when(outboxRepository.loadPayloads(messages)).thenReturn(messages);
+        when(messagePublisher.publish(any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+    }
+
+    private static OutboxMessage message(int attempts) {
+        OutboxMessage message = message();
+        return new OutboxMessage(message.id(), message.aggregateType(), message.aggregateId(), message.eventType(),
+                message.messageKey(), message.traceId(), message.payload(), message.status(), message.createdAt(),
+                null, attempts);
+    }
+
+    private static OutboxMessage message() {
+        return OutboxMessage.createPendingMessage("Order", UUID.randomUUID(), "OrderConfirmedEvent", "key", null, "{}");
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.hexagonalorders.infrastructure.out.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboxRetryPolicyTest {
+
+    private final OutboxRetryPolicy policy = new OutboxRetryPolicy();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(policy, "maxAttempts", 5);
+        ReflectionTestUtils.setField(policy, "initialDelay", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(policy, "maxDelay", Duration.ofSeconds(30));
+    }
+
+    @Test
+    void delayIsBetweenHalfAndAllOfTheExponentialStep() {
+        for (int attempts = 1; attempts <= 4; attempts++) {
+            long full = 1000L << (attempts - 1);
+            for (int i = 0; i < 200; i++) {
+                assertThat(policy.delayFor(attempts).toMillis()).isBetween(full / 2, full);
+            }
+        }
+    }
+
+    @Test
+    void delayIsCappedAtMaxDelayEvenForHugeAttemptCounts() {
+        for (int attempts : new int[] {6, 31, 64, Integer.MAX_VALUE}) {
+            assertThat(policy.delayFor(attempts).toMillis()).isBetween(15_000L, 30_000L);
+        }
+    }
+
+    @Test
+    void delaysOfTheSameAttemptAreSpreadOut() {
+        Set<Duration> delays = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            delays.add(policy.delayFor(3));
+        }
+        assertThat(delays).hasSizeGreaterThan(10);
+    }
+
+    @Test
+    void exhaustedOnceMaxAttemptsIsReached() {
+        assertThat(policy.isExhausted(4)).isFalse();
+        assertThat(policy.isExhausted(5)).isTrue();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.hexagonalorders.infrastructure.out.messaging;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PublisherCircuitBreakerTest {
+
+    private final PublisherCircuitBreaker breaker = new PublisherCircuitBreaker();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(breaker, "failureThreshold", 2);
+        ReflectionTestUtils.setField(breaker, "openDuration", Duration.ZERO);
+    }
+
+    @Test
+    void opensAfterConsecutiveFailuresAndLetsASingleProbeThrough() throws Exception {
+        assertThat(breaker.permits(10)).isEqualTo(10);
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertThat(breaker.state()).isEqualTo(PublisherCircuitBreaker.State.OPEN);
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Integer>> calls = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                calls.add(() -> breaker.permits(10));
+            }
+            int granted = 0;
+            for (Future<Integer> permits : callers.invokeAll(calls)) {
+                granted += permits.get();
+            }
+            assertThat(granted).isEqualTo(1);
+        } finally {
+            callers.shutdownNow();
+        }
+        assertThat(breaker.state()).isEqualTo(PublisherCircuitBreaker.State.HALF_OPEN);
+    }
+
+    @Test
+    void successfulProbeClosesAndResumesDraining() {
+        AtomicInteger resumed = new AtomicInteger();
+        breaker.onClose(resumed::incrementAndGet);
+        breaker.recordFailure();
+        breaker.recordFailure();
+
+        assertThat(breaker.permits(10)).isEqualTo(1);
+        breaker.recordSuccess();
+
+        assertThat(breaker.state()).isEqualTo(PublisherCircuitBreaker.State.CLOSED);
+        assertThat(breaker.permits(10)).isEqualTo(10);
+        assertThat(resumed).hasValue(1);
+    }
+
+    @Test
+    void failedProbeReopensTheBreaker() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertThat(breaker.permits(10)).isEqualTo(1);
+
+        breaker.recordFailure();
+
+        assertThat(breaker.state()).isEqualTo(PublisherCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void releasedProbeCanBeTakenAgain() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertThat(breaker.permits(10)).isEqualTo(1);
+        assertThat(breaker.permits(10)).isZero();
+
+        breaker.releaseProbe();
+
+        assertThat(breaker.permits(10)).isEqualTo(1);
+    }
+}
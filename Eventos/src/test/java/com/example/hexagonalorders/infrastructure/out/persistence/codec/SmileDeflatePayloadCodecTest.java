@@ -0,0 +1,53 @@
+package com.example.hexagonalorders.infrastructure.out.persistence.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SmileDeflatePayloadCodecTest {
+
+    private final SmileDeflatePayloadCodec codec = new SmileDeflatePayloadCodec();
+
+    @Test
+    void roundTripsCompactJsonUnchanged() {
+        String payload = "{\"orderNumber\":\"01J0ZK3V1Q8M4C6X2T9R5BNHWE\",\"customerId\":\"C-ñandú \\\"1\\\"\","
+                + "\"confirmedAt\":\"2024-06-18T10:00:00\",\"total\":19.99,\"quantity\":3,\"gift\":false,"
+                + "\"note\":null,\"items\":[{\"productNumber\":\"P1\",\"unitPrice\":9.5},{\"productNumber\":\"P2\","
+                + "\"unitPrice\":0.99}],\"tags\":[]}";
+
+        assertThat(codec.decode(codec.encode(payload))).isEqualTo(payload);
+    }
+
+    @Test
+    void keepsDecimalsExact() {
+        String payload = "{\"amount\":12345678901234567.123456789012345678,\"tiny\":0.1000000000000000055511151231257827,"
+                + "\"big\":123456789012345678901234567890}";
+
+        assertThat(codec.decode(codec.encode(payload))).isEqualTo(payload);
+    }
+
+    @Test
+    void compactsRepetitivePayloads() {
+        StringBuilder payload = new StringBuilder("{\"items\":[");
+        for (int i = 0; i < 200; i++) {
+            payload.append(i == 0 ? "" : ",").append("{\"productNumber\":\"P").append(i)
+                    .append("\",\"quantity\":1,\"unitPrice\":9.5}");
+        }
+        String json = payload.append("]}").toString();
+
+        byte[] encoded = codec.encode(json);
+
+        assertThat(encoded.length).isLessThan(json.getBytes(StandardCharsets.UTF_8).length / 4);
+        assertThat(codec.decode(encoded)).isEqualTo(json);
+    }
+
+    @Test
+    void rejectsInvalidInput() {
+        assertThatThrownBy(() -> codec.encode("{not json")).isInstanceOf(UncheckedIOException.class);
+        assertThatThrownBy(() -> codec.decode(new byte[] {1, 2, 3})).isInstanceOf(UncheckedIOException.class);
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.hexagonalorders.infrastructure.out.persistence.repository;
+
+import com.example.hexagonalorders.domain.model.Order;
+import com.example.hexagonalorders.domain.model.OrderItem;
+import com.example.hexagonalorders.domain.model.OrderStatus;
+import com.example.hexagonalorders.domain.model.valueobject.OrderNumber;
+import com.example.hexagonalorders.domain.model.valueobject.ProductNumber;
+import com.example.hexagonalorders.domain.model.valueobject.Quantity;
+import com.example.hexagonalorders.infrastructure.out.persistence.mapper.OrderJpaMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({OrderRepositoryAdapter.class, OrderJpaMapper.class})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:order-repository-adapter",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+class OrderRepositoryAdapterTest {
+
+    @Autowired
+    private OrderRepositoryAdapter adapter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void confirmingAPersistedOrderIsOneConditionalUpdate() {
+        Order order = load(stored(item("P1", 1, "10.00"), item("P2", 2, "5.50")));
+        statistics.clear();
+
+        order.confirm(null);
+        adapter.save(order);
+        entityManager.flush();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityDeleteCount()).isZero();
+        assertThat(statistics.getEntityInsertCount()).isZero();
+        assertThat(statusOf(order)).isEqualTo("CONFIRMED");
+        assertThat(itemCount(order)).isEqualTo(2);
+        assertThat(order.getPersistedStatus()).isEqualTo(OrderStatus.CONFIRMED);
+    }
+
+    @Test
+    void itemsOfANewOrderAreInsertedInOneJdbcBatch() {
+        OrderItem[] lines = new OrderItem[50];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = item("P" + i, 1, "10.00");
+        }
+        stored(item("P0", 1, "10.00")); // calienta las secuencias
+        statistics.clear();
+
+        Order order = stored(lines);
+
+        // INSERT de la orden + un batch de items (+ a lo sumo un next value por secuencia)
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(51);
+        assertThat(itemCount(order)).isEqualTo(50);
+    }
+
+    @Test
+    void staleStatusFailsWithOptimisticLock() {
+        Order order = load(stored(item("P1", 1, "10.00")));
+        jdbcTemplate.update("UPDATE orders SET status = 'CANCELLED' WHERE order_number = ?", order.getOrderNumber().value());
+
+        order.confirm(null);
+
+        assertThatThrownBy(() -> adapter.save(order))
+                .isInstanceOf(OptimisticLockingFailureException.class)
+                .hasMessageContaining("no longer PENDING");
+        assertThat(statusOf(order)).isEqualTo("CANCELLED");
+        assertThat(order.getPersistedStatus()).isEqualTo(OrderStatus.PENDING);
+    }
+
+    @Test
+    void addingAndRemovingItemsTouchesOnlyThoseRows() {
+        Order order = load(stored(item("P1", 1, "10.00"), item("P1", 1, "10.00"), item("P2", 2, "5.50")));
+        List<Long> before = itemIds(order);
+        statistics.clear();
+
+        order.removeItem(order.getItems().get(0));
+        order.addItem(item("P3", 3, "1.25"), null, null);
+        adapter.save(order);
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        List<Long> after = itemIds(order);
+        // se borra una sola de las dos líneas iguales; las demás conservan su fila
+        assertThat(after).hasSize(3).containsAll(before.subList(1, 3)).doesNotContain(before.get(0));
+        assertThat(jdbcTemplate.queryForList("SELECT product_number FROM order_items i JOIN orders o ON i.order_id = o.id "
+                + "WHERE o.order_number = ? ORDER BY i.id", String.class, order.getOrderNumber().value()))
+                .containsExactly("P1", "P2", "P3");
+    }
+
+    @Test
+    void removingTwoEqualLinesDeletesTwoRows() {
+        Order order = load(stored(item("P1", 1, "10.00"), item("P1", 1, "10.00"), item("P2", 2, "5.50")));
+        List<Long> before = itemIds(order);
+
+        order.removeItem(order.getItems().get(1));
+        order.removeItem(order.getItems().get(0));
+        adapter.save(order);
+        entityManager.flush();
+
+        assertThat(itemIds(order)).containsExactly(before.get(2));
+    }
+
+    @Test
+    void saveAllSharesOneConditionalUpdatePerTransition() {
+        Order first = load(stored(item("P1", 1, "10.00")));
+        Order second = load(stored(item("P2", 1, "10.00")));
+        statistics.clear();
+
+        first.confirm(null);
+        second.confirm(null);
+        adapter.saveAll(List.of(first, second));
+        entityManager.flush();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statusOf(first)).isEqualTo("CONFIRMED");
+        assertThat(statusOf(second)).isEqualTo("CONFIRMED");
+    }
+
+    @Test
+    void saveAllFailsWhenAnyOrderOfATransitionIsStale() {
+        Order fresh = load(stored(item("P1", 1, "10.00")));
+        Order stale = load(stored(item("P2", 1, "10.00")));
+        jdbcTemplate.update("UPDATE orders SET status = 'CANCELLED' WHERE order_number = ?", stale.getOrderNumber().value());
+
+        fresh.confirm(null);
+        stale.confirm(null);
+
+        assertThatThrownBy(() -> adapter.saveAll(List.of(fresh, stale)))
+                .isInstanceOf(OptimisticLockingFailureException.class)
+                .hasMessageContaining("1 of 2");
+    }
+
+    private Order stored(OrderItem... items) {
+        Order order = new Order(new OrderNumber(UUID.randomUUID().toString()), "C1", LocalDateTime.now(),
+                new ArrayList<>(List.of(items)), OrderStatus.PENDING);
+        adapter.save(order);
+        entityManager.flush();
+        entityManager.clear();
+        return order;
+    }
+
+    private Order load(Order stored) {
+        return adapter.findByOrderNumber(stored.getOrderNumber()).orElseThrow();
+    }
+
+    private String statusOf(Order order) {
+        return jdbcTemplate.queryForObject("SELECT status FROM orders WHERE order_number = ?", String.class,
+                order.getOrderNumber().value());
+    }
+
+    private int itemCount(Order order) {
+        return itemIds(order).size();
+    }
+
+    private List<Long> itemIds(Order order) {
+        return jdbcTemplate.queryForList("SELECT i.id FROM order_items i JOIN orders o ON i.order_id = o.id "
+                + "WHERE o.order_number = ? ORDER BY i.id", Long.class, order.getOrderNumber().value());
+    }
+
+    private static OrderItem item(String product, int quantity, String unitPrice) {
+        return new OrderItem(new ProductNumber(product), new Quantity(quantity), new BigDecimal(unitPrice));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.hexagonalorders.infrastructure.out.persistence.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:outbox-purge-lock")
+class OutboxMessageJpaRepositoryTest {
+
+    private static final List<String> COMPLETED = List.of("PROCESSED", "FAILED");
+
+    @Autowired
+    private OutboxMessageJpaRepository jpaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void completedRowsStayLockedUntilThePurgeTransactionEnds() throws Exception {
+        Instant now = Instant.now();
+        String oldest = insertCompleted("PROCESSED", now.minus(3, ChronoUnit.DAYS));
+        String older = insertCompleted("FAILED", now.minus(2, ChronoUnit.DAYS));
+        String old = insertCompleted("PROCESSED", now.minus(1, ChronoUnit.DAYS));
+        insertCompleted("PROCESSED", now.plus(1, ChronoUnit.HOURS)); // después del corte
+        TransactionTemplate purge = new TransactionTemplate(transactionManager);
+        purge.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        List<String> skippedByOther = purge.execute(status -> {
+            List<String> locked = jpaRepository.findCompletedBefore(COMPLETED, now, 2);
+            assertThat(locked).containsExactly(oldest, older);
+            // otra instancia purgando a la vez, con su propia conexión
+            return CompletableFuture.supplyAsync(() -> purge.execute(other ->
+                    jpaRepository.findCompletedBefore(COMPLETED, now, 10))).join();
+        });
+
+        // H2 bloquea todas las filas que cumplen el WHERE, no solo las del LIMIT: 'old' puede faltar
+        assertThat(skippedByOther).doesNotContain(oldest, older);
+        List<String> afterCommit = purge.execute(status -> jpaRepository.findCompletedBefore(COMPLETED, now, 10));
+        assertThat(afterCommit).containsExactly(oldest, older, old);
+    }
+
+    private String insertCompleted(String status, Instant processedAt) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO outbox (id, aggregate_type, aggregate_id, event_type, payload, payload_codec, "
+                        + "status, created_at, processed_at, shard, attempts) VALUES (?, 'Order', ?, 'OrderConfirmedEvent', "
+                        + "X'7B7D', 'json', ?, ?, ?, 0, 0)",
+                id, UUID.randomUUID(), status, processedAt.minusSeconds(1), processedAt);
+        return id.toString();
+    }
+}
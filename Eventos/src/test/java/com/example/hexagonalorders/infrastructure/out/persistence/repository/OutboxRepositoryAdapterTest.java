@@ -0,0 +1,58 @@
+package com.example.hexagonalorders.infrastructure.out.persistence.repository;
+
+import com.example.hexagonalorders.domain.model.OutboxMessage;
+import com.example.hexagonalorders.infrastructure.out.persistence.codec.JsonPayloadCodec;
+import com.example.hexagonalorders.infrastructure.out.persistence.codec.OutboxPayloadCodecs;
+import com.example.hexagonalorders.infrastructure.out.persistence.codec.SmileDeflatePayloadCodec;
+import com.example.hexagonalorders.infrastructure.out.persistence.entity.OutboxPayloadView;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OutboxRepositoryAdapterTest {
+
+    private final OutboxMessageJpaRepository jpaRepository = mock(OutboxMessageJpaRepository.class);
+    private final SmileDeflatePayloadCodec smile = new SmileDeflatePayloadCodec();
+    private final OutboxRepositoryAdapter adapter = new OutboxRepositoryAdapter(jpaRepository,
+            mock(OutboxShardLeaseJpaRepository.class),
+            new OutboxPayloadCodecs(List.of(new JsonPayloadCodec(), smile), JsonPayloadCodec.ID));
+
+    @Test
+    void decodesEachPayloadWithTheCodecItWasWrittenWith() {
+        OutboxMessage first = header();
+        OutboxMessage second = header();
+        when(jpaRepository.findPayloads(anyCollection())).thenReturn(List.of(
+                new OutboxPayloadView(second.id(), SmileDeflatePayloadCodec.ID, smile.encode("{\"n\":2}")),
+                new OutboxPayloadView(first.id(), JsonPayloadCodec.ID, "{\"n\":1}".getBytes(StandardCharsets.UTF_8))));
+
+        List<OutboxMessage> loaded = adapter.loadPayloads(List.of(first, second));
+
+        assertThat(loaded).extracting(OutboxMessage::id).containsExactly(first.id(), second.id());
+        assertThat(loaded).extracting(OutboxMessage::payload).containsExactly("{\"n\":1}", "{\"n\":2}");
+    }
+
+    @Test
+    void failsInsteadOfDroppingClaimedRowsThatAreGone() {
+        OutboxMessage present = header();
+        OutboxMessage gone = header();
+        when(jpaRepository.findPayloads(anyCollection())).thenReturn(List.of(
+                new OutboxPayloadView(present.id(), JsonPayloadCodec.ID, "{}".getBytes(StandardCharsets.UTF_8))));
+
+        assertThatThrownBy(() -> adapter.loadPayloads(List.of(present, gone)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining(gone.id().toString())
+                .hasMessageNotContaining(present.id().toString());
+    }
+
+    private static OutboxMessage header() {
+        return OutboxMessage.createPendingMessage("Order", UUID.randomUUID(), "OrderConfirmedEvent", "key", null, null);
+    }
+}